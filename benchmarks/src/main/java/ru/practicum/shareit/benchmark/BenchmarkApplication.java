@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+/**
+ * Поднимает контекст сервера без веб-слоя поверх встроенной H2 со схемой из schema.sql.
+ */
+public final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.url=jdbc:h2:mem:shareit-benchmarks",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.schema-locations=classpath:schema.sql",
+                        "--logging.level.root=WARN");
+    }
+}
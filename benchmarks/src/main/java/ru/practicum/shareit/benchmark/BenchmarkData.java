@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.booking.model.BookingEntity;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.item.model.CommentEntity;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.storage.CommentStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.request.model.ItemRequestEntity;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BenchmarkData {
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+    private final ItemRequestStorage itemRequestStorage;
+    private int userCounter;
+
+    public BenchmarkData(ApplicationContext context) {
+        this.userStorage = context.getBean(UserStorage.class);
+        this.itemStorage = context.getBean(ItemStorage.class);
+        this.bookingStorage = context.getBean(BookingStorage.class);
+        this.commentStorage = context.getBean(CommentStorage.class);
+        this.itemRequestStorage = context.getBean(ItemRequestStorage.class);
+    }
+
+    public UserEntity user() {
+        userCounter++;
+        return userStorage.save(UserEntity.builder().name("User " + userCounter)
+                .email("user" + userCounter + "@shareit.ru").build());
+    }
+
+    public List<ItemEntity> items(UserEntity owner, Integer requestId, int count) {
+        List<ItemEntity> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(ItemEntity.builder().name("Item " + i).description("Description of item " + i)
+                    .available(true).ownerId(owner.getId()).requestId(requestId).build());
+        }
+        return itemStorage.saveAll(items);
+    }
+
+    public BookingEntity booking(ItemEntity item, UserEntity booker, LocalDateTime start, LocalDateTime end,
+                                 BookingStatus status) {
+        return bookingStorage.save(BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
+                .start(start).end(end).status(status).build());
+    }
+
+    public CommentEntity comment(ItemEntity item, UserEntity author, String text) {
+        return commentStorage.save(CommentEntity.builder().item(item).author(author).text(text)
+                .created(LocalDateTime.now()).build());
+    }
+
+    public ItemRequestEntity request(UserEntity requestor, LocalDateTime created) {
+        return itemRequestStorage.save(ItemRequestEntity.builder().description("Need something")
+                .requestorId(requestor.getId()).created(created).build());
+    }
+}
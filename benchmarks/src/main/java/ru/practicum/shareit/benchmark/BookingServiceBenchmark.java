@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.user.model.UserEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    private static final int BOOKINGS = 600;
+    private static final int PAGE_SIZE = 20;
+    private static final BookingStatus[] STATUSES = {BookingStatus.WAITING, BookingStatus.APPROVED,
+            BookingStatus.REJECTED};
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private String state;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private int ownerId;
+    private int bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkData data = new BenchmarkData(context);
+        UserEntity owner = data.user();
+        UserEntity booker = data.user();
+        List<ItemEntity> items = data.items(owner, null, 50);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = now.plusHours(i - BOOKINGS / 2);
+            LocalDateTime end = start.plusHours(i % 3 == 0 ? BOOKINGS : 1);
+            data.booking(items.get(i % items.size()), booker, start, end, STATUSES[i % STATUSES.length]);
+        }
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getUsersBookings() {
+        return bookingService.getUsersBookings(bookerId, state, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnersBookings() {
+        return bookingService.getOwnersBookings(ownerId, state, 0, PAGE_SIZE);
+    }
+}
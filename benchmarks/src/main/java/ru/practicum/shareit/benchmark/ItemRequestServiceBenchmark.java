@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.request.dto.ItemResponseDto;
+import ru.practicum.shareit.request.model.ItemRequestEntity;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.UserEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestServiceBenchmark {
+    private static final int REQUESTS = 1000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "900"})
+    private int from;
+
+    private ConfigurableApplicationContext context;
+    private ItemRequestService itemRequestService;
+    private int userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkData data = new BenchmarkData(context);
+        UserEntity user = data.user();
+        UserEntity owner = data.user();
+        List<UserEntity> requestors = List.of(data.user(), data.user(), data.user(), data.user());
+        LocalDateTime created = LocalDateTime.now().minusDays(REQUESTS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            ItemRequestEntity request = data.request(requestors.get(i % requestors.size()), created.plusDays(i));
+            data.items(owner, request.getId(), i % 3);
+        }
+        userId = user.getId();
+        itemRequestService = context.getBean(ItemRequestService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> getAllRequests() {
+        return itemRequestService.getAllRequests(userId, from, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.UserEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"1", "20", "100"})
+    private int itemsPerOwner;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private int ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkData data = new BenchmarkData(context);
+        UserEntity owner = data.user();
+        UserEntity booker = data.user();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ItemEntity item : data.items(owner, null, itemsPerOwner)) {
+            data.booking(item, booker, now.minusDays(10), now.minusDays(8), BookingStatus.APPROVED);
+            data.booking(item, booker, now.minusDays(5), now.minusDays(3), BookingStatus.APPROVED);
+            data.booking(item, booker, now.plusDays(3), now.plusDays(5), BookingStatus.WAITING);
+            data.booking(item, booker, now.plusDays(8), now.plusDays(10), BookingStatus.REJECTED);
+            data.comment(item, booker, "Works fine");
+            data.comment(item, booker, "Would book again");
+        }
+        ownerId = owner.getId();
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> getOwnersItems() {
+        return itemService.getOwnersItems(ownerId, 0, itemsPerOwner);
+    }
+}
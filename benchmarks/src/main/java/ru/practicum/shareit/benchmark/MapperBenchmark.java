@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingEntity;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.CommentEntity;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.user.model.UserEntity;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private ConfigurableApplicationContext context;
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private CommentMapper commentMapper;
+    private BookingEntity bookingEntity;
+    private BookingDto bookingDto;
+    private ItemEntity itemEntity;
+    private ItemDto itemDto;
+    private CommentEntity commentEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        bookingMapper = context.getBean(BookingMapper.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        commentMapper = context.getBean(CommentMapper.class);
+
+        UserEntity booker = UserEntity.builder().id(2).name("User 2").email("user2@shareit.ru").build();
+        itemEntity = ItemEntity.builder().id(1).name("Drill").description("Cordless drill").available(true)
+                .ownerId(1).build();
+        bookingEntity = BookingEntity.builder().id(1).item(itemEntity).ownerId(1).booker(booker)
+                .start(LocalDateTime.of(2024, 2, 1, 0, 0)).end(LocalDateTime.of(2024, 2, 11, 0, 0))
+                .status(BookingStatus.APPROVED).build();
+        commentEntity = CommentEntity.builder().id(1).item(itemEntity).author(booker).text("Works fine")
+                .created(LocalDateTime.of(2024, 2, 12, 0, 0)).build();
+        bookingDto = bookingMapper.toDto(bookingEntity);
+        itemDto = itemMapper.toDto(itemEntity);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toDto(bookingEntity);
+    }
+
+    @Benchmark
+    public BookingEntity bookingToEntity() {
+        return bookingMapper.toEntity(bookingDto);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toDto(itemEntity);
+    }
+
+    @Benchmark
+    public ItemEntity itemToEntity() {
+        return itemMapper.toEntity(itemDto);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return commentMapper.toDto(commentEntity);
+    }
+}
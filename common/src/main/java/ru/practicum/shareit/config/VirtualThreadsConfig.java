@@ -0,0 +1,46 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка запросов Tomcat на виртуальных потоках: spring.threads.virtual.enabled=true, нужна Java 21+.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig implements DisposableBean {
+    // Не бин: Executor в контексте отключил бы applicationTaskExecutor Spring Boot
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        log.info("Tomcat requests will be handled on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // Tomcat не останавливает переданный ему извне executor, а к этому моменту Tomcat уже остановлен
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    // Метод ищется через reflection, потому что проект собирается под Java 11
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(String.format("Virtual threads require Java 21 or newer, current " +
+                    "version is %s", Runtime.version()));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
@@ -3,59 +3,99 @@ package ru.practicum.shareit.booking.client;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.client.ItemClient;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ItemClient itemClient;
+
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareItRequestFactory, WebClient.Builder webClientBuilder,
+                         @Value("${shareit-server.client-mode:blocking}") ClientMode clientMode,
+                         ResponseCache responseCache, ItemClient itemClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                clientMode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                responseCache
         );
+        this.itemClient = itemClient;
     }
 
-    public ResponseEntity<Object> getUsersBookings(int userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getUsersBookings(int userId, BookingState state, Integer from, Integer size,
+                                                        String cursor, String ifNoneMatch) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters, ifNoneMatch);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}", userId, parameters, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getOwnersBookings(int userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getOwnersBookings(int userId, BookingState state, Integer from, Integer size,
+                                                         String cursor, String ifNoneMatch) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/owner" + "?state={state}&cursor={cursor}&size={size}", userId, parameters, ifNoneMatch);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
         );
-        return get("/owner" + "?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner" + "?state={state}&from={from}&size={size}", userId, parameters, ifNoneMatch);
     }
 
 
-    public ResponseEntity<Object> createBooking(int userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<Object>> createBooking(int userId, BookItemRequestDto requestDto) {
+        return onSuccess(post("", userId, requestDto), () -> itemClient.evictItem(requestDto.getItemId()));
+    }
+
+    public Mono<ResponseEntity<Object>> createBookings(int userId, List<BookItemRequestDto> requestDtos) {
+        return onSuccess(post("/batch", userId, requestDtos), () -> requestDtos.stream()
+                .map(BookItemRequestDto::getItemId).distinct().forEach(itemClient::evictItem));
     }
 
-    public ResponseEntity<Object> getBooking(int userId, Integer bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(int userId, Integer bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(int userId, Integer bookingId, Boolean isApproved) {
+    public Mono<ResponseEntity<Object>> approveBooking(int userId, Integer bookingId, Boolean isApproved) {
         Map<String, Object> parameters = Map.of(
                 "approved", isApproved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        Mono<ResponseEntity<Object>> response = patch("/" + bookingId + "?approved={approved}", userId, parameters,
+                null);
+        // Вещь бронирования в gateway неизвестна, поэтому удаляются карточки всех вещей
+        return isApproved ? response : onSuccess(response, itemClient::evictItems);
     }
 }
@@ -2,19 +2,24 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -22,33 +27,41 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsersBookings(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getUsersBookings(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                                         @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get users bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getUsersBookings(userId, state, from, size);
+        log.info("Get users bookings with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from,
+                size, cursor);
+        return bookingClient.getUsersBookings(userId, state, from, size, cursor, ifNoneMatch);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                          @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get owners bookings with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getOwnersBookings(userId, state, from, size);
+        log.info("Get owners bookings with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from,
+                size, cursor);
+        return bookingClient.getOwnersBookings(userId, state, from, size, cursor, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                      @RequestBody @Valid BookItemRequestDto requestDto) {
         if (!requestDto.getEnd().isAfter(requestDto.getStart())) {
             throw new IllegalArgumentException("Invalid booking time. End time should go after start time");
         }
@@ -56,17 +69,31 @@ public class BookingController {
         return bookingClient.createBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                       @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                       List<@Valid BookItemRequestDto> requestDtos) {
+        for (int i = 0; i < requestDtos.size(); i++) {
+            if (!requestDtos.get(i).getEnd().isAfter(requestDtos.get(i).getStart())) {
+                throw new IllegalArgumentException(String.format("Invalid booking time in booking %d. End time " +
+                        "should go after start time", i));
+            }
+        }
+        log.info("Creating batch of {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.createBookings(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                             @PathVariable @Min(1) Integer bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                   @PathVariable @Min(1) Integer bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") @Min(1) Integer userId,
-                                                 @PathVariable("bookingId") @Min(1) Integer bookingId,
-                                                 @RequestParam("approved") @NotNull Boolean isApproved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") @Min(1) Integer userId,
+                                                       @PathVariable("bookingId") @Min(1) Integer bookingId,
+                                                       @RequestParam("approved") @NotNull Boolean isApproved) {
         log.info("Approving booking with id={}, userId={}, approved={}", bookingId, userId, isApproved);
         return bookingClient.approveBooking(userId, bookingId, isApproved);
     }
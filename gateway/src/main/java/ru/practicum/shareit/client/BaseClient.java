@@ -1,117 +1,246 @@
 package ru.practicum.shareit.client;
 
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
+    // Заголовки соединения и длины тела, которые нельзя переносить из ответа сервера в ответ gateway
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient webClient;
+    @Nullable
+    private final ResponseCache responseCache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    // Без webClient запросы идут через RestTemplate, без responseCache getCached не кэширует ответы
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable ResponseCache responseCache) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.responseCache = responseCache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, int userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    // If-None-Match клиента передаётся серверу, при совпадении ETag клиент получает 304 без тела
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters,
+                                               @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch);
+    }
+
+    // userSpecific - ответ сервера зависит от пользователя из X-Sharer-User-Id
+    protected Mono<ResponseEntity<Object>> getCached(String path, Integer userId,
+                                                     @Nullable Map<String, Object> parameters, boolean userSpecific) {
+        if (responseCache == null) {
+            return get(path, userId, parameters);
+        }
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        return responseCache.get(uri, userSpecific ? userId : null, () -> get(path, userId, parameters));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    // Удаляет ответы на запросы к пути с любыми параметрами
+    protected void evictCached(String path) {
+        if (responseCache != null) {
+            responseCache.evict(rest.getUriTemplateHandler().expand(path));
+        }
+    }
+
+    // Удаляет ответы на запросы ко всем вложенным путям
+    protected void evictCachedUnder(String path) {
+        if (responseCache != null) {
+            responseCache.evictUnder(rest.getUriTemplateHandler().expand(path));
+        }
+    }
+
+    protected static Mono<ResponseEntity<Object>> onSuccess(Mono<ResponseEntity<Object>> response, Runnable action) {
+        return response.doOnNext(serverResponse -> {
+            if (serverResponse.getStatusCode().is2xxSuccessful()) {
+                action.run();
+            }
+        });
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, int userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, int userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    // RestTemplate буферизует тело целиком, поэтому потоковые запросы всегда идут через WebClient
+    protected Mono<ResponseEntity<Object>> postStream(WebClient streamingWebClient, String path, int userId,
+                                                      MediaType contentType, Publisher<DataBuffer> body) {
+        return streamingWebClient.post()
+                .uri(path)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .contentType(contentType)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(body, DataBuffer.class)
+                .exchangeToMono(BaseClient::prepareGatewayResponse);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getStream(WebClient streamingWebClient, String path, int userId,
+                                                               Map<String, Object> parameters) {
+        return streamingWebClient.get()
+                .uri(path, parameters)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(prepareGatewayHeaders(response.getStatusCode(), response.getHeaders()))
+                        .body(response.getBody()));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                                @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId, ifNoneMatch);
+        if (webClient != null) {
+            return exchangeReactive(webClient, method, path, headers, parameters, body);
+        }
+        return Mono.fromCallable(() -> exchangeBlocking(method, path, headers, parameters, body));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
-    private HttpHeaders defaultHeaders(Integer userId) {
+    private <T> Mono<ResponseEntity<Object>> exchangeReactive(WebClient webClient, HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(BaseClient::prepareGatewayResponse);
+    }
+
+    private HttpHeaders defaultHeaders(Integer userId, @Nullable String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        return response.bodyToMono(byte[].class)
+                .map(body -> prepareGatewayResponse(response.statusCode(), headers, body))
+                .defaultIfEmpty(prepareGatewayResponse(response.statusCode(), headers, null));
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    // Тело передаётся как есть; заголовки сервера сохраняются для 2xx и 304, для ошибок - только тип
+    private static ResponseEntity<Object> prepareGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                                 @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                .headers(prepareGatewayHeaders(status, serverHeaders));
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
+
+    private static HttpHeaders prepareGatewayHeaders(HttpStatus status, @Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            if (status.is2xxSuccessful() || status == HttpStatus.NOT_MODIFIED) {
+                serverHeaders.forEach((name, values) -> {
+                    if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                        headers.addAll(name, values);
+                    }
+                });
+            } else if (serverHeaders.getContentType() != null) {
+                headers.setContentType(serverHeaders.getContentType());
+            }
+        }
+        return headers;
+    }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+public enum ClientMode {
+    // Блокирующий RestTemplate: поток обработки запроса ждёт ответа сервера
+    BLOCKING,
+    // Неблокирующий WebClient: поток освобождается на время запроса к серверу
+    REACTIVE
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий для клиентов gateway пул HTTP-соединений с сервером.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItConnectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItHttpClient(PoolingHttpClientConnectionManager shareItConnectionManager,
+                                                 HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+        long defaultKeepAlive = properties.getDefaultKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(shareItConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient shareItHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItHttpClient);
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManagerMetricsBinder shareItConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager shareItConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(shareItConnectionManager, POOL_NAME);
+    }
+
+    // В reactive-приложении Spring Boot не создаёт RestTemplateBuilder
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public RestTemplateBuilder restTemplateBuilder() {
+        return new RestTemplateBuilder();
+    }
+
+    // Tomcat тоже есть в classpath и выбирается первым, поэтому reactive-режим явно запускается на Netty
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareItHttpConnector(ConnectionProvider shareItConnectionProvider,
+                                                    HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareItConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
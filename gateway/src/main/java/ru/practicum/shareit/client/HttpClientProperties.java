@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений gateway с сервером shareit-server.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    private int maxTotal = 200;
+    // Все клиенты gateway ходят на один сервер, поэтому лимит на хост равен общему
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    // Простой, после которого соединение закрывается фоновой очисткой
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    // Простой, после которого соединение проверяется перед выдачей из пула
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    // Время keep-alive, если сервер не прислал заголовок Keep-Alive
+    private Duration defaultKeepAlive = Duration.ofSeconds(20);
+}
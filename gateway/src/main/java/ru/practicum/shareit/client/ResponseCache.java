@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш успешных ответов сервера на GET, общий для клиентов gateway.
+ */
+public class ResponseCache {
+    private static final String CACHE_NAME = "gateway-responses";
+    private static final String ANY_USER = "*";
+
+    private final boolean enabled;
+    private final Cache<String, ResponseEntity<Object>> cache;
+    // Отсортированные ключи кэша: удаление по префиксу пути просматривает только подходящие ключи
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    // Ответ, запрошенный до инвалидации, не попадает в кэш после неё
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter invalidations;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .<String, ResponseEntity<Object>>evictionListener((key, response, cause) -> keys.remove(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.invalidations = Counter.builder("gateway.cache.invalidations")
+                .description("Number of gateway cache invalidations caused by modifying requests")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    // userId - пользователь, если ответ зависит от него, иначе null
+    public Mono<ResponseEntity<Object>> get(URI uri, @Nullable Integer userId,
+                                            Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        String key = key(uri, userId);
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        long requestGeneration = generation.get();
+        return request.get().doOnNext(response -> {
+            if (response.getStatusCode() == HttpStatus.OK && generation.get() == requestGeneration) {
+                cache.asMap().compute(key, (cacheKey, cachedResponse) -> {
+                    keys.add(cacheKey);
+                    return response;
+                });
+            }
+        });
+    }
+
+    // Удаляет ответы на запросы к пути с любыми параметрами для всех пользователей
+    public void evict(URI uri) {
+        String path = uri.getRawPath();
+        invalidate(path + "?", path + "#");
+    }
+
+    public void evictUnder(URI uri) {
+        invalidate(uri.getRawPath() + "/");
+    }
+
+    private void invalidate(String... prefixes) {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        for (String prefix : prefixes) {
+            for (String key : keys.tailSet(prefix)) {
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                cache.asMap().compute(key, (cacheKey, cachedResponse) -> {
+                    keys.remove(cacheKey);
+                    return null;
+                });
+            }
+        }
+        invalidations.increment();
+    }
+
+    private static String key(URI uri, @Nullable Integer userId) {
+        String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+        return uri.getRawPath() + query + "#" + (userId != null ? userId : ANY_USER);
+    }
+}
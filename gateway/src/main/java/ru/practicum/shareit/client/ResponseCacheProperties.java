@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    // Ограничивает устаревание данных, изменённых в обход gateway
+    private Duration ttl = Duration.ofSeconds(30);
+}
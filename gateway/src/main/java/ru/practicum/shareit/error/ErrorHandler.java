@@ -6,14 +6,19 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.controller.ItemTransferController;
+import ru.practicum.shareit.item.controller.ReactiveItemTransferController;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.user.controller.UserController;
 
+import javax.validation.ConstraintViolationException;
+
 
 @RestControllerAdvice(assignableTypes = {BookingController.class, ItemController.class, UserController.class,
-        ItemRequestController.class})
+        ItemRequestController.class, ItemTransferController.class, ReactiveItemTransferController.class})
 @Slf4j
 public class ErrorHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -23,6 +28,20 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleValidationException(WebExchangeBindException e) {
+        log.error("Error occurred. Validation failed:{}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(ConstraintViolationException e) {
+        log.error("Error occurred. Validation failed:{}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalArgumentException(IllegalArgumentException e) {
@@ -2,14 +2,25 @@ package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+import ru.practicum.shareit.request.client.ItemRequestClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,45 +28,124 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ItemRequestClient itemRequestClient;
+    // Импорт и экспорт вещей файлом идут через WebClient в любом режиме клиента
+    private final WebClient streamingWebClient;
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItRequestFactory, WebClient.Builder webClientBuilder,
+                      @Value("${shareit-server.client-mode:blocking}") ClientMode clientMode,
+                      ResponseCache responseCache, ItemRequestClient itemRequestClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                clientMode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                responseCache
         );
+        this.itemRequestClient = itemRequestClient;
+        this.streamingWebClient = webClientBuilder.baseUrl(serverUrl + API_PREFIX).build();
+    }
+
+    public Mono<ResponseEntity<Object>> createItem(int userId, ItemDto itemDto) {
+        return onSuccess(post("", userId, itemDto), () -> {
+            evictCached("/search");
+            if (itemDto.getRequestId() != null) {
+                itemRequestClient.evictRequest(itemDto.getRequestId());
+            }
+        });
     }
 
-    public ResponseEntity<Object> createItem(int userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> updateItem(int userId, int itemId, ItemDto itemDto) {
+        return onSuccess(patch("/" + itemId, userId, itemDto), () -> {
+            evictItem(itemId);
+            evictCached("/search");
+        });
     }
 
-    public ResponseEntity<Object> updateItem(int userId, int itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> getItemById(int userId, int itemId) {
+        return getCached("/" + itemId, userId, null, true);
     }
 
-    public ResponseEntity<Object> getItemById(int userId, int itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getOwnersItems(int userId, Integer from, Integer size, String cursor,
+                                                       String ifNoneMatch) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("?cursor={cursor}&size={size}", userId, parameters, ifNoneMatch);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getOwnersItems(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchItems(int userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
+                "text", text,
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getCached("/search?text={text}&from={from}&size={size}", userId, parameters, false);
     }
 
-    public ResponseEntity<Object> searchItems(int userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchAvailableItems(int userId, String text, LocalDateTime start,
+                                                             LocalDateTime end, Integer from, Integer size) {
+        // Кэш gateway не узнаёт о новых бронированиях найденных вещей
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "start", start,
+                "end", end,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemAvailability(int userId, int itemId, LocalDateTime from,
+                                                            LocalDateTime to) {
+        // Свободные промежутки меняются с каждым бронированием вещи, поэтому ответ не кэшируется
+        StringBuilder path = new StringBuilder("/" + itemId + "/availability");
+        Map<String, Object> parameters = new HashMap<>();
+        if (from != null) {
+            path.append("?from={from}");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            path.append(from != null ? "&" : "?").append("to={to}");
+            parameters.put("to", to);
+        }
+        return get(path.toString(), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> importItems(int userId, MediaType contentType, Flux<DataBuffer> body) {
+        // Импортированные вещи могут быть ответами на любые запросы, поэтому из кэша удаляются все запросы
+        return onSuccess(postStream(streamingWebClient, "/import", userId, contentType, body), () -> {
+            evictCached("/search");
+            itemRequestClient.evictRequests();
+        });
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportItems(int userId, ItemFileFormat format) {
+        Map<String, Object> parameters = Map.of(
+                "format", format.name().toLowerCase()
+        );
+        return getStream(streamingWebClient, "/export?format={format}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(int userId, Integer itemId, CommentDto commentDto) {
+        return onSuccess(post("/" + itemId + "/comment", userId, commentDto), () -> evictItem(itemId));
+    }
+
+    public void evictItem(int itemId) {
+        evictCached("/" + itemId);
     }
 
-    public ResponseEntity<Object> addComment(int userId, Integer itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public void evictItems() {
+        evictCachedUnder("");
     }
 }
@@ -2,10 +2,13 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -14,6 +17,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -24,48 +28,82 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                             @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                   @RequestBody @Valid ItemDto itemDto) {
         log.info("Creating new item: {} by the owner with id: {}", itemDto, userId);
         return itemClient.createItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                             @PathVariable("itemId") @Min(1) int itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                   @PathVariable("itemId") @Min(1) int itemId,
+                                                   @RequestBody ItemDto itemDto) {
         log.info("Updating item with id: {} by the owner with id: {}, {}", itemId, userId, itemDto);
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                              @PathVariable("itemId") @Min(1) int itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                    @PathVariable("itemId") @Min(1) int itemId) {
         log.info("Getting item by id={} by the user with id={}", itemId, userId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnersItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Get owners items, owner id={}, from={}, size={}", userId, from, size);
-        return itemClient.getOwnersItems(userId, from, size);
+    public Mono<ResponseEntity<Object>> getOwnersItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                       @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                       @RequestParam(name = "cursor", required = false) String cursor,
+                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Get owners items, owner id={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemClient.getOwnersItems(userId, from, size, cursor, ifNoneMatch);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                              @RequestParam("text") String text,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Search items with text={}, user id={}, from={}, size={}", text, userId, from, size);
-        return itemClient.searchItems(userId, text, from, size);
+    public Mono<ResponseEntity<Object>> searchItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                    @RequestParam("text") String text,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "start", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                    @RequestParam(name = "end", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if (start == null && end == null) {
+            log.info("Search items with text={}, user id={}, from={}, size={}", text, userId, from, size);
+            return itemClient.searchItems(userId, text, from, size);
+        }
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Invalid period. Parameters start and end should be set together");
+        }
+        if (start.isBefore(LocalDateTime.now().withNano(0))) {
+            throw new IllegalArgumentException("Invalid period. Parameter start should be in future or in present");
+        }
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("Invalid period. Parameter end should go after parameter start");
+        }
+        log.info("Search items available from {} to {} with text={}, user id={}, from={}, size={}", start, end,
+                text, userId, from, size);
+        return itemClient.searchAvailableItems(userId, text, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                            @PathVariable("itemId") @Min(1) int itemId,
+                                                            @RequestParam(name = "from", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(name = "to", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("Invalid period. Parameter to should go after parameter from");
+        }
+        log.info("Get availability of item with id={}, user id={}, from={}, to={}", itemId, userId, from, to);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                             @PathVariable("itemId") @Min(1) Integer itemId,
-                                             @RequestBody @Valid CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                   @PathVariable("itemId") @Min(1) Integer itemId,
+                                                   @RequestBody @Valid CommentDto commentDto) {
         log.info("Add new comment by user with id={} to item with id={}, comment: {}", userId, itemId, commentDto);
         return itemClient.addComment(userId, itemId, commentDto);
     }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+
+import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Потоковый импорт и экспорт вещей файлом на Tomcat, строки проверяет сервер.
+ */
+@Controller
+@RequestMapping(path = "/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ItemTransferController {
+    // Размер части тела запроса, передаваемой серверу
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ItemClient itemClient;
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemFileFormat.CSV_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    InputStream body) {
+        log.info("Importing items from {} by the owner with id: {}", contentType, userId);
+        // Чтение InputStream блокирует поток, поэтому выполняется не в потоках WebClient
+        Flux<DataBuffer> buffers = DataBufferUtils.readInputStream(() -> body, DefaultDataBufferFactory.sharedInstance,
+                        BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return itemClient.importItems(userId, contentType, buffers);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                                   @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        ItemFileFormat format = ItemFileFormat.from(formatParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown format: " + formatParam));
+        log.info("Exporting items to {} by the owner with id: {}", format, userId);
+        return itemClient.exportItems(userId, format)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .body(output -> {
+                            // Закрытие Stream отменяет чтение ответа сервера, если клиент gateway отключился
+                            try (Stream<DataBuffer> buffers = response.getBody().toStream()) {
+                                Iterator<DataBuffer> iterator = buffers.iterator();
+                                while (iterator.hasNext()) {
+                                    try (InputStream buffer = iterator.next().asInputStream(true)) {
+                                        buffer.transferTo(output);
+                                    }
+                                }
+                            }
+                        }));
+    }
+}
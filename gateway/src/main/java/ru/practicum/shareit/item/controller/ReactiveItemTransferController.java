@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+
+import javax.validation.constraints.Min;
+
+/**
+ * То же, что ItemTransferController, для профиля reactive на WebFlux.
+ */
+@Controller
+@RequestMapping(path = "/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemTransferController {
+    private final ItemClient itemClient;
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemFileFormat.CSV_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                    @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    @RequestBody Flux<DataBuffer> body) {
+        log.info("Importing items from {} by the owner with id: {}", contentType, userId);
+        return itemClient.importItems(userId, contentType, body);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportItems(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                              @RequestParam(name = "format", defaultValue = "ndjson") String formatParam) {
+        ItemFileFormat format = ItemFileFormat.from(formatParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown format: " + formatParam));
+        log.info("Exporting items to {} by the owner with id: {}", format, userId);
+        return itemClient.exportItems(userId, format);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Optional;
+
+public enum ItemFileFormat {
+    // Одна вещь в формате JSON на строку, application/x-ndjson
+    NDJSON,
+    // Таблица с заголовком, text/csv
+    CSV;
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static Optional<ItemFileFormat> from(String stringFormat) {
+        for (ItemFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(stringFormat)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -3,10 +3,14 @@ package ru.practicum.shareit.request.client;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -15,32 +19,53 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory shareItRequestFactory, WebClient.Builder webClientBuilder,
+                             @Value("${shareit-server.client-mode:blocking}") ClientMode clientMode,
+                             ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                clientMode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(int userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(int userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getUsersItemRequests(int userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getUsersItemRequests(int userId, String ifNoneMatch) {
+        return get("", userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getRequestById(Integer requestId, int userId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequestById(Integer requestId, int userId) {
+        return getCached("/" + requestId, userId, null, true);
     }
 
-    public ResponseEntity<Object> getAllRequests(int userId, Integer from, Integer size) {
+    public void evictRequest(int requestId) {
+        evictCached("/" + requestId);
+    }
+
+    public void evictRequests() {
+        evictCachedUnder("");
+    }
+
+    public Mono<ResponseEntity<Object>> getAllRequests(int userId, Integer from, Integer size, String cursor,
+                                                       String ifNoneMatch) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/all?cursor={cursor}&size={size}", userId, parameters, ifNoneMatch);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters, ifNoneMatch);
     }
 }
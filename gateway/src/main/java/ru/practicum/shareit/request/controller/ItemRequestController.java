@@ -2,10 +2,12 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.client.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -24,31 +26,34 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                    @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                          @RequestBody @Valid ItemRequestDto itemRequestDto) {
         log.info("Creating new item request: {} by the user with id: {}", itemRequestDto, userId);
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsersItemRequests(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId) {
+    public Mono<ResponseEntity<Object>> getUsersItemRequests(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                             @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get item request of user with id={}", userId);
-        return itemRequestClient.getUsersItemRequests(userId);
+        return itemRequestClient.getUsersItemRequests(userId, ifNoneMatch);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                 @PathVariable("requestId") @Min(1) Integer requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                       @PathVariable("requestId") @Min(1) Integer requestId) {
         log.info("Get item request by id={}, user id={}", requestId, userId);
         return itemRequestClient.getRequestById(requestId, userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
-                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Getting all request by user with id={}, from={}, size={}", userId, from, size);
-        return itemRequestClient.getAllRequests(userId, from, size);
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader("X-Sharer-User-Id") @Min(1) int userId,
+                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                       @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                       @RequestParam(name = "cursor", required = false) String cursor,
+                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Getting all request by user with id={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemRequestClient.getAllRequests(userId, from, size, cursor, ifNoneMatch);
     }
 
 
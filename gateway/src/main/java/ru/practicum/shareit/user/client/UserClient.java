@@ -3,42 +3,64 @@ package ru.practicum.shareit.user.client;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    private final ItemClient itemClient;
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItRequestFactory, WebClient.Builder webClientBuilder,
+                      @Value("${shareit-server.client-mode:blocking}") ClientMode clientMode,
+                      ResponseCache responseCache, ItemClient itemClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItRequestFactory)
+                        .build(),
+                clientMode == ClientMode.REACTIVE ? webClientBuilder.baseUrl(serverUrl + API_PREFIX).build() : null,
+                responseCache
         );
+        this.itemClient = itemClient;
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(int id, UserDto userDto) {
-        return patch("/" + id, userDto);
+    public Mono<ResponseEntity<Object>> updateUser(int id, UserDto userDto) {
+        return onSuccess(patch("/" + id, userDto), () -> {
+            evictCached("/" + id);
+            // Имя пользователя входит в комментарии карточек вещей
+            if (userDto.getName() != null) {
+                itemClient.evictItems();
+            }
+        });
     }
 
-    public ResponseEntity<Object> getUserById(int id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getUserById(int id) {
+        return getCached("/" + id, null, null, false);
     }
 
-    public ResponseEntity<Object> deleteUser(int id) {
-        return delete("/" + id);
+    public Mono<ResponseEntity<Object>> deleteUser(int id) {
+        return onSuccess(delete("/" + id), () -> {
+            evictCached("/" + id);
+            itemClient.evictItems();
+        });
     }
 }
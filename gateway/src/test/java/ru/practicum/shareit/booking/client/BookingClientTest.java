@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.UnorderedRequestExpectationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.request.client.ItemRequestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BookingClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private MockRestServiceServer itemServer;
+    private MockRestServiceServer bookingServer;
+    private ItemClient itemClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void beforeEach() {
+        ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+        ItemRequestClient itemRequestClient = new ItemRequestClient(SERVER_URL, new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache);
+        MockServerRestTemplateCustomizer itemCustomizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(itemCustomizer),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache,
+                itemRequestClient);
+        itemServer = itemCustomizer.getServer();
+        MockServerRestTemplateCustomizer bookingCustomizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        bookingClient = new BookingClient(SERVER_URL, new RestTemplateBuilder(bookingCustomizer),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache,
+                itemClient);
+        bookingServer = bookingCustomizer.getServer();
+    }
+
+    @Test
+    void approveBooking_shouldEvictAllItemsWhenBookingIsRejected() {
+        expectItems(1, times(2));
+        expectItems(2, times(2));
+        expectApproval(false, HttpStatus.OK);
+
+        getItems(1, 2);
+        assertEquals(HttpStatus.OK, bookingClient.approveBooking(1, 10, false).block().getStatusCode());
+        getItems(1, 2);
+
+        itemServer.verify();
+        bookingServer.verify();
+    }
+
+    @Test
+    void approveBooking_shouldKeepItemsWhenBookingIsApproved() {
+        expectItems(1, once());
+        expectApproval(true, HttpStatus.OK);
+
+        getItems(1);
+        assertEquals(HttpStatus.OK, bookingClient.approveBooking(1, 10, true).block().getStatusCode());
+        getItems(1);
+
+        itemServer.verify();
+        bookingServer.verify();
+    }
+
+    @Test
+    void approveBooking_shouldKeepItemsWhenRejectionFails() {
+        expectItems(1, once());
+        expectApproval(false, HttpStatus.BAD_REQUEST);
+
+        getItems(1);
+        assertEquals(HttpStatus.BAD_REQUEST, bookingClient.approveBooking(1, 10, false).block().getStatusCode());
+        getItems(1);
+
+        itemServer.verify();
+        bookingServer.verify();
+    }
+
+    @Test
+    void createBooking_shouldEvictBookedItemOnly() {
+        expectItems(1, times(2));
+        expectItems(2, once());
+        bookingServer.expect(once(), requestTo(SERVER_URL + "/bookings")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":10}", MediaType.APPLICATION_JSON));
+
+        getItems(1, 2);
+        bookingClient.createBooking(2, booking(1)).block();
+        getItems(1, 2);
+
+        itemServer.verify();
+        bookingServer.verify();
+    }
+
+    @Test
+    void createBooking_shouldKeepItemWhenBookingOverlaps() {
+        expectItems(1, once());
+        bookingServer.expect(once(), requestTo(SERVER_URL + "/bookings")).andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.CONFLICT));
+
+        getItems(1);
+        assertEquals(HttpStatus.CONFLICT, bookingClient.createBooking(2, booking(1)).block().getStatusCode());
+        getItems(1);
+
+        itemServer.verify();
+        bookingServer.verify();
+    }
+
+    @Test
+    void createBookings_shouldEvictAllBookedItems() {
+        expectItems(1, times(2));
+        expectItems(2, times(2));
+        expectItems(3, once());
+        bookingServer.expect(once(), requestTo(SERVER_URL + "/bookings/batch")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        getItems(1, 2, 3);
+        bookingClient.createBookings(2, List.of(booking(1), booking(2), booking(1))).block();
+        getItems(1, 2, 3);
+
+        itemServer.verify();
+        bookingServer.verify();
+    }
+
+    private void expectItems(int itemId, ExpectedCount count) {
+        itemServer.expect(count, requestTo(SERVER_URL + "/items/" + itemId))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":" + itemId + "}", MediaType.APPLICATION_JSON));
+    }
+
+    private void expectApproval(boolean approved, HttpStatus status) {
+        bookingServer.expect(once(), requestTo(SERVER_URL + "/bookings/10?approved=" + approved))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withStatus(status).contentType(MediaType.APPLICATION_JSON).body("{\"id\":10}"));
+    }
+
+    private void getItems(int... itemIds) {
+        for (int itemId : itemIds) {
+            itemClient.getItemById(1, itemId).block();
+        }
+    }
+
+    private static BookItemRequestDto booking(int itemId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookItemRequestDto(itemId, start, start.plusDays(1));
+    }
+}
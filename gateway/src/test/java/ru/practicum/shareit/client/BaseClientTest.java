@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseClientTest {
+    private final AtomicInteger actions = new AtomicInteger();
+
+    @Test
+    void onSuccess_shouldRunActionAfterSuccessfulResponse() {
+        BaseClient.onSuccess(Mono.just(ResponseEntity.ok("item")), actions::incrementAndGet).block();
+        BaseClient.onSuccess(Mono.just(ResponseEntity.noContent().build()), actions::incrementAndGet).block();
+
+        assertEquals(2, actions.get());
+    }
+
+    @Test
+    void onSuccess_shouldNotRunActionAfterErrorResponse() {
+        BaseClient.onSuccess(Mono.just(ResponseEntity.badRequest().body("error")), actions::incrementAndGet).block();
+        BaseClient.onSuccess(Mono.just(ResponseEntity.notFound().build()), actions::incrementAndGet).block();
+        BaseClient.onSuccess(Mono.just(ResponseEntity.status(409).build()), actions::incrementAndGet).block();
+
+        assertEquals(0, actions.get());
+    }
+
+    @Test
+    void onSuccess_shouldNotRunActionWhenServerIsUnavailable() {
+        Mono<ResponseEntity<Object>> response = BaseClient.onSuccess(Mono.error(new ResourceAccessException(
+                "Connection refused")), actions::incrementAndGet);
+
+        assertThrows(ResourceAccessException.class, response::block);
+        assertEquals(0, actions.get());
+    }
+
+    @Test
+    void onSuccess_shouldNotRunActionBeforeSubscription() {
+        BaseClient.onSuccess(Mono.just(ResponseEntity.ok("item")), actions::incrementAndGet);
+
+        assertEquals(0, actions.get());
+    }
+}
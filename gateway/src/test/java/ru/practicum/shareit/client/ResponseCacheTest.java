@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private ResponseCacheProperties properties;
+    private ResponseCache responseCache;
+    private AtomicInteger serverCalls;
+
+    @BeforeEach
+    void beforeEach() {
+        properties = new ResponseCacheProperties();
+        responseCache = new ResponseCache(properties, new SimpleMeterRegistry());
+        serverCalls = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldCacheOkResponse() {
+        ResponseEntity<Object> response = get("/items/1", 1, ResponseEntity.ok("item"));
+
+        assertEquals("item", response.getBody());
+        assertEquals("item", get("/items/1", 1, ResponseEntity.ok("changed item")).getBody());
+        assertEquals(1, serverCalls.get());
+    }
+
+    @Test
+    void get_shouldCacheResponsesSeparatelyForUsers() {
+        get("/items/1", 1, ResponseEntity.ok("item for user 1"));
+
+        assertEquals("item for user 2", get("/items/1", 2, ResponseEntity.ok("item for user 2")).getBody());
+        assertEquals("item for user 1", get("/items/1", 1, ResponseEntity.ok("item")).getBody());
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void get_shouldNotCacheNotOkResponse() {
+        get("/items/1", 1, ResponseEntity.notFound().build());
+        get("/items/1", 1, ResponseEntity.ok("item"));
+
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void get_shouldNotCacheResponseRequestedBeforeInvalidation() {
+        Mono<ResponseEntity<Object>> staleResponse = responseCache.get(uri("/items/1"), 1,
+                () -> serverResponse(ResponseEntity.ok("stale item")));
+        responseCache.evict(uri("/items/1"));
+
+        assertEquals("stale item", staleResponse.block().getBody());
+        assertEquals("item", get("/items/1", 1, ResponseEntity.ok("item")).getBody());
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void get_shouldCallServerEveryTimeWhenCacheIsDisabled() {
+        properties.setEnabled(false);
+        responseCache = new ResponseCache(properties, new SimpleMeterRegistry());
+
+        get("/items/1", 1, ResponseEntity.ok("item"));
+        get("/items/1", 1, ResponseEntity.ok("item"));
+
+        assertEquals(2, serverCalls.get());
+    }
+
+    @Test
+    void evict_shouldRemoveResponsesForPathWithAnyParametersAndUsers() {
+        get("/items/1", 1, ResponseEntity.ok("item"));
+        get("/items/1", null, ResponseEntity.ok("item"));
+        get("/items/search?text=drill", null, ResponseEntity.ok("items"));
+        get("/items/search?text=saw", null, ResponseEntity.ok("items"));
+        get("/items/10", 1, ResponseEntity.ok("item"));
+        get("/items/1/comment", 1, ResponseEntity.ok("comment"));
+
+        responseCache.evict(uri("/items/1"));
+        responseCache.evict(uri("/items/search"));
+
+        assertCached("/items/1", 1, false);
+        assertCached("/items/1", null, false);
+        assertCached("/items/search?text=drill", null, false);
+        assertCached("/items/search?text=saw", null, false);
+        assertCached("/items/10", 1, true);
+        assertCached("/items/1/comment", 1, true);
+    }
+
+    @Test
+    void evictUnder_shouldRemoveResponsesForNestedPathsOnly() {
+        get("/items/1", 1, ResponseEntity.ok("item"));
+        get("/items/search?text=drill", null, ResponseEntity.ok("items"));
+        get("/items?from=0", 1, ResponseEntity.ok("items"));
+        get("/itemsets/1", 1, ResponseEntity.ok("item set"));
+        get("/requests/1", 1, ResponseEntity.ok("request"));
+
+        responseCache.evictUnder(uri("/items"));
+
+        assertCached("/items/1", 1, false);
+        assertCached("/items/search?text=drill", null, false);
+        assertCached("/items?from=0", 1, true);
+        assertCached("/itemsets/1", 1, true);
+        assertCached("/requests/1", 1, true);
+    }
+
+    private ResponseEntity<Object> get(String path, Integer userId, ResponseEntity<Object> response) {
+        return responseCache.get(uri(path), userId, () -> serverResponse(response)).block();
+    }
+
+    private Mono<ResponseEntity<Object>> serverResponse(ResponseEntity<Object> response) {
+        return Mono.fromSupplier(() -> {
+            serverCalls.incrementAndGet();
+            return response;
+        });
+    }
+
+    private void assertCached(String path, Integer userId, boolean cached) {
+        int calls = serverCalls.get();
+        get(path, userId, ResponseEntity.ok("fresh"));
+        assertEquals(cached ? calls : calls + 1, serverCalls.get(), path);
+    }
+
+    private static URI uri(String path) {
+        return URI.create(SERVER_URL + path);
+    }
+}
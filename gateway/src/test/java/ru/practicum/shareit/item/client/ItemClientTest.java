@@ -0,0 +1,179 @@
+package ru.practicum.shareit.item.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.UnorderedRequestExpectationManager;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.client.ItemRequestClient;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ItemClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private MockRestServiceServer itemServer;
+    private MockRestServiceServer requestServer;
+    private ItemRequestClient itemRequestClient;
+    private ItemClient itemClient;
+    private HttpStatus importStatus;
+
+    @BeforeEach
+    void beforeEach() {
+        ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+        MockServerRestTemplateCustomizer requestCustomizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        itemRequestClient = new ItemRequestClient(SERVER_URL, new RestTemplateBuilder(requestCustomizer),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache);
+        requestServer = requestCustomizer.getServer();
+        MockServerRestTemplateCustomizer itemCustomizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        WebClient.Builder importWebClient = WebClient.builder().exchangeFunction(request -> Mono.just(
+                ClientResponse.create(importStatus)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"imported\":1,\"failed\":0,\"errors\":[]}")
+                        .build()));
+        itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(itemCustomizer),
+                new SimpleClientHttpRequestFactory(), importWebClient, ClientMode.BLOCKING, responseCache,
+                itemRequestClient);
+        itemServer = itemCustomizer.getServer();
+        importStatus = HttpStatus.OK;
+    }
+
+    @Test
+    void createItem_shouldEvictRequestAnsweredByItemAndSearchResults() {
+        expectRequests(5, times(2));
+        expectRequests(6, once());
+        expectSearches(times(2));
+        itemServer.expect(once(), requestTo(SERVER_URL + "/items")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        getRequestsAndSearch(5, 6);
+        assertTrue(itemClient.createItem(1, new ItemDto("Drill", "Cordless drill", true, 5)).block()
+                .getStatusCode().is2xxSuccessful());
+        getRequestsAndSearch(5, 6);
+
+        requestServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void createItem_shouldKeepCacheWhenServerRejectsItem() {
+        expectRequests(5, once());
+        expectSearches(once());
+        itemServer.expect(once(), requestTo(SERVER_URL + "/items")).andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        getRequestsAndSearch(5);
+        assertEquals(HttpStatus.NOT_FOUND, itemClient.createItem(1, new ItemDto("Drill", "Cordless drill", true, 5))
+                .block().getStatusCode());
+        getRequestsAndSearch(5);
+
+        requestServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void importItems_shouldEvictAllRequestsAndSearchResults() {
+        expectRequests(5, times(2));
+        expectRequests(6, times(2));
+        expectSearches(times(2));
+
+        getRequestsAndSearch(5, 6);
+        assertEquals(HttpStatus.OK, importItems().getStatusCode());
+        getRequestsAndSearch(5, 6);
+
+        requestServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void importItems_shouldKeepCacheWhenImportFails() {
+        importStatus = HttpStatus.NOT_FOUND;
+        expectRequests(5, once());
+        expectSearches(once());
+
+        getRequestsAndSearch(5);
+        assertEquals(HttpStatus.NOT_FOUND, importItems().getStatusCode());
+        getRequestsAndSearch(5);
+
+        requestServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void addComment_shouldEvictCommentedItemOnly() {
+        expectItems(1, times(2));
+        expectItems(2, once());
+        itemServer.expect(once(), requestTo(SERVER_URL + "/items/1/comment")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        itemClient.getItemById(1, 1).block();
+        itemClient.getItemById(1, 2).block();
+        itemClient.addComment(1, 1, new CommentDto("Good drill")).block();
+        itemClient.getItemById(1, 1).block();
+        itemClient.getItemById(1, 2).block();
+
+        itemServer.verify();
+    }
+
+    private void expectRequests(int requestId, ExpectedCount count) {
+        requestServer.expect(count, requestTo(SERVER_URL + "/requests/" + requestId))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":" + requestId + "}", MediaType.APPLICATION_JSON));
+    }
+
+    private void expectItems(int itemId, ExpectedCount count) {
+        itemServer.expect(count, requestTo(SERVER_URL + "/items/" + itemId))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":" + itemId + "}", MediaType.APPLICATION_JSON));
+    }
+
+    private void expectSearches(ExpectedCount count) {
+        itemServer.expect(count, requestTo(SERVER_URL + "/items/search?text=drill&from=0&size=10"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+    }
+
+    private void getRequestsAndSearch(int... requestIds) {
+        for (int requestId : requestIds) {
+            itemRequestClient.getRequestById(requestId, 1).block();
+        }
+        itemClient.searchItems(1, "drill", 0, 10).block();
+    }
+
+    private ResponseEntity<Object> importItems() {
+        DataBuffer row = DefaultDataBufferFactory.sharedInstance.wrap(
+                "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}\n"
+                        .getBytes(StandardCharsets.UTF_8));
+        return itemClient.importItems(1, MediaType.APPLICATION_NDJSON, Flux.just(row)).block();
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.user.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.test.web.client.UnorderedRequestExpectationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.request.client.ItemRequestClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class UserClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private MockRestServiceServer itemServer;
+    private MockRestServiceServer userServer;
+    private ItemClient itemClient;
+    private UserClient userClient;
+
+    @BeforeEach
+    void beforeEach() {
+        ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+        ItemRequestClient itemRequestClient = new ItemRequestClient(SERVER_URL, new RestTemplateBuilder(),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache);
+        MockServerRestTemplateCustomizer itemCustomizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        itemClient = new ItemClient(SERVER_URL, new RestTemplateBuilder(itemCustomizer),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache,
+                itemRequestClient);
+        itemServer = itemCustomizer.getServer();
+        MockServerRestTemplateCustomizer userCustomizer =
+                new MockServerRestTemplateCustomizer(UnorderedRequestExpectationManager.class);
+        userClient = new UserClient(SERVER_URL, new RestTemplateBuilder(userCustomizer),
+                new SimpleClientHttpRequestFactory(), WebClient.builder(), ClientMode.BLOCKING, responseCache,
+                itemClient);
+        userServer = userCustomizer.getServer();
+    }
+
+    @Test
+    void updateUser_shouldEvictUserAndItemsWhenNameChanges() {
+        expectUser(times(2));
+        expectItem(times(2));
+        expectUpdate(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        getUserAndItem();
+        userClient.updateUser(1, new UserDto("Renamed", null)).block();
+        getUserAndItem();
+
+        userServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void updateUser_shouldKeepItemsWhenOnlyEmailChanges() {
+        expectUser(times(2));
+        expectItem(once());
+        expectUpdate(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        getUserAndItem();
+        userClient.updateUser(1, new UserDto(null, "renamed@yandex.ru")).block();
+        getUserAndItem();
+
+        userServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void updateUser_shouldKeepCacheWhenServerRejectsUpdate() {
+        expectUser(once());
+        expectItem(once());
+        expectUpdate(withStatus(HttpStatus.CONFLICT));
+
+        getUserAndItem();
+        assertEquals(HttpStatus.CONFLICT, userClient.updateUser(1, new UserDto("Renamed", null)).block()
+                .getStatusCode());
+        getUserAndItem();
+
+        userServer.verify();
+        itemServer.verify();
+    }
+
+    @Test
+    void deleteUser_shouldEvictUserAndItems() {
+        expectUser(times(2));
+        expectItem(times(2));
+        userServer.expect(once(), requestTo(SERVER_URL + "/users/1")).andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        getUserAndItem();
+        userClient.deleteUser(1).block();
+        getUserAndItem();
+
+        userServer.verify();
+        itemServer.verify();
+    }
+
+    private void expectUser(ExpectedCount count) {
+        userServer.expect(count, requestTo(SERVER_URL + "/users/1")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"User\"}", MediaType.APPLICATION_JSON));
+    }
+
+    private void expectItem(ExpectedCount count) {
+        itemServer.expect(count, requestTo(SERVER_URL + "/items/2")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":2,\"comments\":[{\"authorName\":\"User\"}]}",
+                        MediaType.APPLICATION_JSON));
+    }
+
+    private void expectUpdate(ResponseCreator response) {
+        userServer.expect(once(), requestTo(SERVER_URL + "/users/1")).andExpect(method(HttpMethod.PATCH))
+                .andRespond(response);
+    }
+
+    private void getUserAndItem() {
+        userClient.getUserById(1).block();
+        itemClient.getItemById(3, 2).block();
+    }
+}
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Сравнение пропускной способности gateway + server на пуле потоков Tomcat и на виртуальных потоках.
+# Нужна Java 21+ и собранные jar: mvn package -DskipTests && mvn -Pload -pl load -am package -DskipTests
+# Параметры: VUS (число одновременных соединений), WARMUP и DURATION в секундах.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+VUS=${VUS:-10000}
+WARMUP=${WARMUP:-30}
+DURATION=${DURATION:-120}
+SERVER_JAR=server/target/shareit-server-0.0.1-SNAPSHOT.jar
+GATEWAY_JAR=gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar
+REPORTS=load/target
+
+# Одинаковые для обоих режимов лимиты, чтобы сравнивались только модели потоков
+COMMON_ARGS="--server.tomcat.max-connections=$((VUS + 1000)) --server.tomcat.accept-count=1000"
+GATEWAY_ARGS="--shareit-server.http-client.max-total=1000 --shareit-server.http-client.max-per-route=1000 \
+--shareit-server.http-client.connection-request-timeout=30s"
+
+SERVER_PID=
+GATEWAY_PID=
+
+cleanup() {
+    kill $SERVER_PID $GATEWAY_PID 2>/dev/null || true
+    wait $SERVER_PID $GATEWAY_PID 2>/dev/null || true
+}
+trap cleanup EXIT
+
+ulimit -n 65536 || echo "Warning: failed to raise open files limit"
+
+wait_for() {
+    for _ in $(seq 1 60); do
+        if curl -s -o /dev/null "$1"; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "$1 did not start" >&2
+    return 1
+}
+
+run_mode() {
+    local mode=$1 virtual=$2
+    java -jar "$SERVER_JAR" --spring.profiles.active=ci --spring.threads.virtual.enabled="$virtual" \
+        $COMMON_ARGS > "$REPORTS/server-$mode.log" 2>&1 &
+    SERVER_PID=$!
+    SHAREIT_SERVER_URL=http://localhost:9090 java -jar "$GATEWAY_JAR" --spring.threads.virtual.enabled="$virtual" \
+        $COMMON_ARGS $GATEWAY_ARGS > "$REPORTS/gateway-$mode.log" 2>&1 &
+    GATEWAY_PID=$!
+
+    wait_for http://localhost:9090/users
+    wait_for http://localhost:8080/actuator/health
+    java -jar load/target/load-generator.jar --vus="$VUS" --warmup="$WARMUP" --duration="$DURATION" \
+        | tee "$REPORTS/report-$mode.txt"
+
+    cleanup
+}
+
+mkdir -p "$REPORTS"
+run_mode platform false
+run_mode virtual true
+
+echo
+echo "Throughput at $VUS concurrent connections:"
+for mode in platform virtual; do
+    printf '%-10s %s\n' "$mode" "$(grep '^TOTAL' "$REPORTS/report-$mode.txt")"
+done
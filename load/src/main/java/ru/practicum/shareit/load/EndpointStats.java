@@ -0,0 +1,70 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Латентность и ошибки по эндпоинтам, HdrHistogram в микросекундах.
+ */
+public class EndpointStats {
+    private static final String REPORT_FORMAT = "%-32s %9s %7s %10s %9s %9s %9s %9s%n";
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    public void record(String endpoint, long elapsedNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    public void reset() {
+        endpoints.values().forEach(Endpoint::reset);
+    }
+
+    public void report(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+
+        out.printf(REPORT_FORMAT, "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p99.9 ms",
+                "max ms");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().recorder.getIntervalHistogram();
+            long errors = entry.getValue().errors.sum();
+            total.add(histogram);
+            totalErrors += errors;
+            printRow(out, entry.getKey(), histogram, errors, seconds);
+        }
+        printRow(out, "TOTAL", total, totalErrors, seconds);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf(REPORT_FORMAT, name, histogram.getTotalCount(), errors,
+                String.format("%.1f", histogram.getTotalCount() / seconds),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static class Endpoint {
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+
+        private void reset() {
+            recorder.reset();
+            errors.reset();
+        }
+    }
+}
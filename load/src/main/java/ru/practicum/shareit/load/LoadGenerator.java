@@ -0,0 +1,107 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон gateway и server, статистика прогрева в отчёт не попадает.
+ */
+public class LoadGenerator {
+    private final LoadOptions options;
+    private final EndpointStats stats = new EndpointStats();
+    private final Workload workload = new Workload();
+    private final ShareItClient client;
+
+    public LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.client = new ShareItClient(options.getBaseUrl(), stats);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        System.out.println("Load run: " + options);
+        new LoadGenerator(options).run();
+    }
+
+    public void run() throws Exception {
+        seed();
+        stats.reset();
+
+        long started = System.nanoTime();
+        long warmupEnd = started + options.getWarmup().toNanos();
+        long deadline = warmupEnd + options.getDuration().toNanos();
+
+        ExecutorService executor = newExecutor(options.getVirtualUsers());
+        List<Future<?>> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < options.getVirtualUsers(); i++) {
+            Random random = new Random(options.getSeed() + i);
+            virtualUsers.add(executor.submit(() -> runVirtualUser(random, deadline)));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+        stats.reset();
+        long measured = System.nanoTime();
+        for (Future<?> virtualUser : virtualUsers) {
+            virtualUser.get();
+        }
+        executor.shutdown();
+
+        stats.report(System.out, Duration.ofNanos(System.nanoTime() - measured));
+    }
+
+    // На Java 21+ виртуальные пользователи работают на виртуальных потоках
+    private static ExecutorService newExecutor(int virtualUsers) {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("Virtual users run on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(virtualUsers);
+        }
+    }
+
+    private void seed() {
+        Random random = new Random(options.getSeed());
+        for (int i = 0; i < options.getSeedUsers(); i++) {
+            JsonNode user = client.createUser("User " + i, workload.nextEmail());
+            if (user == null) {
+                throw new IllegalStateException("Failed to create seed user. Is gateway running on " +
+                        options.getBaseUrl() + "?");
+            }
+            int userId = user.get("id").asInt();
+            workload.addUser(userId);
+            for (int j = 0; j < options.getItemsPerUser(); j++) {
+                String name = Workload.randomWord(random);
+                JsonNode item = client.createItem(userId, name, name + " для аренды", null);
+                if (item != null) {
+                    workload.addItem(item.get("id").asInt(), userId);
+                }
+            }
+        }
+        System.out.printf("Seeded %d users and %d items per user%n", options.getSeedUsers(),
+                options.getItemsPerUser());
+    }
+
+    private void runVirtualUser(Random random, long deadline) {
+        long thinkTime = options.getThinkTime().toMillis();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            Scenario.pick(random).run(client, workload, random);
+            if (thinkTime > 0) {
+                try {
+                    Thread.sleep(thinkTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
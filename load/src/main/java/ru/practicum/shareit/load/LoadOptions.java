@@ -0,0 +1,81 @@
+package ru.practicum.shareit.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона. Передаются аргументами вида --name=value.
+ */
+public class LoadOptions {
+    private final String baseUrl;
+    private final int virtualUsers;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+    private final int seedUsers;
+    private final int itemsPerUser;
+    private final Duration thinkTime;
+
+    private LoadOptions(Map<String, String> values) {
+        baseUrl = values.getOrDefault("base-url", "http://localhost:8080");
+        virtualUsers = Integer.parseInt(values.getOrDefault("vus", "16"));
+        warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10")));
+        duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60")));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        seedUsers = Integer.parseInt(values.getOrDefault("seed-users", "50"));
+        itemsPerUser = Integer.parseInt(values.getOrDefault("items-per-user", "3"));
+        thinkTime = Duration.ofMillis(Long.parseLong(values.getOrDefault("think-ms", "0")));
+    }
+
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException(String.format("Unknown argument: %s. Expected --name=value", arg));
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadOptions(values);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSeedUsers() {
+        return seedUsers;
+    }
+
+    public int getItemsPerUser() {
+        return itemsPerUser;
+    }
+
+    public Duration getThinkTime() {
+        return thinkTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("base-url=%s, vus=%d, warmup=%ds, duration=%ds, seed=%d, seed-users=%d, " +
+                        "items-per-user=%d, think-ms=%d", baseUrl, virtualUsers, warmup.toSeconds(),
+                duration.toSeconds(), seed, seedUsers, itemsPerUser, thinkTime.toMillis());
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Сценарии виртуального пользователя по мотивам postman-коллекции; вес задаёт долю сценария.
+ */
+public enum Scenario {
+    SEARCH(35) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            client.searchItems(workload.randomUser(random), Workload.randomWord(random).toLowerCase());
+        }
+    },
+    VIEW_ITEM(20) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            client.getItem(workload.randomUser(random), workload.randomItem(random).id);
+        }
+    },
+    OWNER_DASHBOARD(15) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            int ownerId = workload.randomItem(random).ownerId;
+            client.getOwnersItems(ownerId);
+            client.getOwnersBookings(ownerId, "ALL");
+        }
+    },
+    MY_BOOKINGS(10) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            client.getUsersBookings(workload.randomUser(random), random.nextBoolean() ? "ALL" : "FUTURE");
+        }
+    },
+    // Часть бронирований короткие, чтобы потом оставить отзыв
+    BOOK(10) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            Workload.Item item = workload.randomItem(random);
+            int bookerId = workload.randomUser(random);
+            if (bookerId == item.ownerId) {
+                return;
+            }
+            boolean shortBooking = random.nextInt(10) < 3;
+            LocalDateTime start = null;
+            LocalDateTime end = null;
+            for (int attempt = 0; attempt < MAX_BOOKING_ATTEMPTS && start == null; attempt++) {
+                LocalDateTime candidateStart = LocalDateTime.now().withNano(0)
+                        .plusSeconds(shortBooking ? 1 : 3600L * (1 + random.nextInt(24 * 30)));
+                LocalDateTime candidateEnd = candidateStart
+                        .plusSeconds(shortBooking ? 1 : 3600L * (1 + random.nextInt(72)));
+                if (item.reserve(candidateStart, candidateEnd)) {
+                    start = candidateStart;
+                    end = candidateEnd;
+                }
+            }
+            if (start == null) {
+                return;
+            }
+            JsonNode booking = client.createBooking(bookerId, item.id, start, end);
+            if (booking == null) {
+                item.release(start);
+                return;
+            }
+            JsonNode approved = client.approveBooking(item.ownerId, booking.get("id").asInt(), true);
+            if (approved != null && shortBooking) {
+                workload.addFinishedBooking(bookerId, item.id, end);
+            }
+        }
+    },
+    ADD_ITEM(4) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            int ownerId = workload.randomUser(random);
+            String name = Workload.randomWord(random);
+            JsonNode item = client.createItem(ownerId, name, name + " в хорошем состоянии", null);
+            if (item != null) {
+                workload.addItem(item.get("id").asInt(), ownerId);
+            }
+        }
+    },
+    REQUEST(3) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            int userId = workload.randomUser(random);
+            client.createRequest(userId, "Нужна " + Workload.randomWord(random).toLowerCase() + " на выходные");
+            client.getAllRequests(userId);
+        }
+    },
+    COMMENT(2) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            Workload.FinishedBooking booking = workload.pollFinishedBooking(LocalDateTime.now());
+            if (booking != null) {
+                client.addComment(booking.bookerId, booking.itemId, "Всё отлично, спасибо!");
+            }
+        }
+    },
+    SIGN_UP(1) {
+        @Override
+        void run(ShareItClient client, Workload workload, Random random) {
+            JsonNode user = client.createUser("Load user", workload.nextEmail());
+            if (user != null) {
+                workload.addUser(user.get("id").asInt());
+            }
+        }
+    };
+
+    private static final int TOTAL_WEIGHT = totalWeight();
+    private static final int MAX_BOOKING_ATTEMPTS = 3;
+
+    private final int weight;
+
+    Scenario(int weight) {
+        this.weight = weight;
+    }
+
+    abstract void run(ShareItClient client, Workload workload, Random random);
+
+    public static Scenario pick(Random random) {
+        int value = random.nextInt(TOTAL_WEIGHT);
+        for (Scenario scenario : values()) {
+            value -= scenario.weight;
+            if (value < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("Scenario weights are inconsistent");
+    }
+
+    private static int totalWeight() {
+        int total = 0;
+        for (Scenario scenario : values()) {
+            total += scenario.weight;
+        }
+        return total;
+    }
+}
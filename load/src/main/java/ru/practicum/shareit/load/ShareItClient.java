@@ -0,0 +1,131 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * HTTP-клиент gateway: замеряет вызовы по шаблону пути, при ошибке возвращает null.
+ */
+public class ShareItClient {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final EndpointStats stats;
+
+    public ShareItClient(String baseUrl, EndpointStats stats) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+    }
+
+    public JsonNode createUser(String name, String email) {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name).put("email", email);
+        return send("POST /users", request("/users", null).POST(json(body)));
+    }
+
+    public JsonNode createItem(int ownerId, String name, String description, Integer requestId) {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name).put("description", description)
+                .put("available", true);
+        if (requestId != null) {
+            body.put("requestId", requestId);
+        }
+        return send("POST /items", request("/items", ownerId).POST(json(body)));
+    }
+
+    public JsonNode getItem(int userId, int itemId) {
+        return send("GET /items/{itemId}", request("/items/" + itemId, userId).GET());
+    }
+
+    public JsonNode getOwnersItems(int ownerId) {
+        return send("GET /items", request("/items?from=0&size=20", ownerId).GET());
+    }
+
+    public JsonNode searchItems(int userId, String text) {
+        return send("GET /items/search", request("/items/search?from=0&size=20&text=" +
+                URLEncoder.encode(text, StandardCharsets.UTF_8), userId).GET());
+    }
+
+    public JsonNode addComment(int userId, int itemId, String text) {
+        ObjectNode body = objectMapper.createObjectNode().put("text", text);
+        return send("POST /items/{itemId}/comment", request("/items/" + itemId + "/comment", userId)
+                .POST(json(body)));
+    }
+
+    public JsonNode createBooking(int bookerId, int itemId, LocalDateTime start, LocalDateTime end) {
+        ObjectNode body = objectMapper.createObjectNode().put("itemId", itemId)
+                .put("start", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(start))
+                .put("end", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(end));
+        return send("POST /bookings", request("/bookings", bookerId).POST(json(body)));
+    }
+
+    public JsonNode approveBooking(int ownerId, int bookingId, boolean approved) {
+        return send("PATCH /bookings/{bookingId}", request("/bookings/" + bookingId + "?approved=" + approved,
+                ownerId).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public JsonNode getUsersBookings(int userId, String state) {
+        return send("GET /bookings", request("/bookings?from=0&size=20&state=" + state, userId).GET());
+    }
+
+    public JsonNode getOwnersBookings(int ownerId, String state) {
+        return send("GET /bookings/owner", request("/bookings/owner?from=0&size=20&state=" + state, ownerId)
+                .GET());
+    }
+
+    public JsonNode createRequest(int userId, String description) {
+        ObjectNode body = objectMapper.createObjectNode().put("description", description);
+        return send("POST /requests", request("/requests", userId).POST(json(body)));
+    }
+
+    public JsonNode getAllRequests(int userId) {
+        return send("GET /requests/all", request("/requests/all?from=0&size=20", userId).GET());
+    }
+
+    private HttpRequest.Builder request(String path, Integer userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (userId != null) {
+            builder.header(USER_HEADER, String.valueOf(userId));
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher json(JsonNode body) {
+        return HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8);
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            boolean success = response.statusCode() / 100 == 2;
+            stats.record(endpoint, System.nanoTime() - start, success);
+            return success ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.load;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общие для виртуальных пользователей данные: пользователи, вещи и завершённые бронирования.
+ */
+public class Workload {
+    static final String[] WORDS = {"Дрель", "Отвертка", "Лестница", "Палатка", "Велосипед", "Пила", "Байдарка",
+            "Проектор", "Перфоратор", "Спальник", "Самокат", "Шуруповерт"};
+
+    private final List<Integer> userIds = Collections.synchronizedList(new ArrayList<>());
+    private final List<Item> items = Collections.synchronizedList(new ArrayList<>());
+    // Первым в очереди стоит бронирование, которое закончилось раньше остальных
+    private final Queue<FinishedBooking> finishedBookings = new PriorityBlockingQueue<>(11,
+            Comparator.comparing(booking -> booking.end));
+    private final AtomicInteger emailCounter = new AtomicInteger();
+    private final long runId = System.currentTimeMillis();
+
+    public void addUser(int userId) {
+        userIds.add(userId);
+    }
+
+    public void addItem(int itemId, int ownerId) {
+        items.add(new Item(itemId, ownerId));
+    }
+
+    public void addFinishedBooking(int bookerId, int itemId, LocalDateTime end) {
+        finishedBookings.add(new FinishedBooking(bookerId, itemId, end));
+    }
+
+    public int randomUser(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    public Item randomItem(Random random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    public FinishedBooking pollFinishedBooking(LocalDateTime now) {
+        FinishedBooking booking = finishedBookings.poll();
+        if (booking != null && booking.end.isAfter(now)) {
+            finishedBookings.add(booking);
+            return null;
+        }
+        return booking;
+    }
+
+    public String nextEmail() {
+        return String.format("load-%d-%d@shareit.ru", runId, emailCounter.incrementAndGet());
+    }
+
+    public static String randomWord(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public static class Item {
+        final int id;
+        final int ownerId;
+        // Периоды созданных бронирований вещи, чтобы сервер не отклонял новые с 409 из-за пересечения
+        private final NavigableMap<LocalDateTime, LocalDateTime> bookedPeriods = new TreeMap<>();
+
+        Item(int id, int ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        synchronized boolean reserve(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> previous = bookedPeriods.lowerEntry(end);
+            if (previous != null && previous.getValue().isAfter(start)) {
+                return false;
+            }
+            bookedPeriods.put(start, end);
+            return true;
+        }
+
+        synchronized void release(LocalDateTime start) {
+            bookedPeriods.remove(start);
+        }
+    }
+
+    public static class FinishedBooking {
+        final int bookerId;
+        final int itemId;
+        final LocalDateTime end;
+
+        FinishedBooking(int bookerId, int itemId, LocalDateTime end) {
+            this.bookerId = bookerId;
+            this.itemId = itemId;
+            this.end = end;
+        }
+    }
+}
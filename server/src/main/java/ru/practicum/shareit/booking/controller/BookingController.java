@@ -2,10 +2,14 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pageable.PageCursor;
 
 import java.util.List;
 
@@ -25,6 +29,12 @@ public class BookingController {
         return bookingDtoCreated;
     }
 
+    @PostMapping("/batch")
+    public List<BatchBookingResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") int bookerId,
+                                                      @RequestBody List<ShortBookingDto> bookingDtos) {
+        return bookingService.createBookings(bookerId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") Integer userId,
                                      @PathVariable("bookingId") Integer bookingId,
@@ -39,18 +49,36 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUsersBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                             @RequestParam(name = "state") String state,
-                                             @RequestParam(name = "from") Integer from,
-                                             @RequestParam(name = "size") Integer size) {
-        return bookingService.getUsersBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getUsersBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                             @RequestParam(name = "state") String state,
+                                                             @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                             @RequestParam(name = "size") Integer size,
+                                                             @RequestParam(name = "cursor", required = false) String cursor,
+                                                             WebRequest webRequest) {
+        PageCursor after = cursor == null ? null : PageCursor.decodeTimestampAndId(cursor);
+        if (webRequest.checkNotModified(bookingService.getUsersBookingsETag(userId))) {
+            return null;
+        }
+        List<BookingDto> bookings = after == null
+                ? bookingService.getUsersBookings(userId, state, from, size)
+                : bookingService.getUsersBookingsAfter(userId, state, after, size);
+        return PageCursor.withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                              @RequestParam(name = "state") String state,
-                                              @RequestParam(name = "from") Integer from,
-                                              @RequestParam(name = "size") Integer size) {
-        return bookingService.getOwnersBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getOwnersBookings(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                                              @RequestParam(name = "state") String state,
+                                                              @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @RequestParam(name = "size") Integer size,
+                                                              @RequestParam(name = "cursor", required = false) String cursor,
+                                                              WebRequest webRequest) {
+        PageCursor after = cursor == null ? null : PageCursor.decodeTimestampAndId(cursor);
+        if (webRequest.checkNotModified(bookingService.getOwnersBookingsETag(userId))) {
+            return null;
+        }
+        List<BookingDto> bookings = after == null
+                ? bookingService.getOwnersBookings(userId, state, from, size)
+                : bookingService.getOwnersBookingsAfter(userId, state, after, size);
+        return PageCursor.withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 }
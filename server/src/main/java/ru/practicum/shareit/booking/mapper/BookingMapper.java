@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -8,6 +9,8 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 
 @Mapper(componentModel = "spring", uses = {ItemMapper.class, UserMapper.class})
 public interface BookingMapper {
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "updated", ignore = true)
     BookingEntity toEntity(BookingDto bookingDto);
 
     BookingDto toDto(BookingEntity bookingEntity);
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.model;
 
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 import ru.practicum.shareit.item.model.ItemEntity;
 import ru.practicum.shareit.user.model.UserEntity;
 
@@ -17,7 +18,8 @@ import java.time.LocalDateTime;
 public class BookingEntity {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Integer id;
     @Column(name = "start_date", nullable = false)
     private LocalDateTime start;
@@ -26,9 +28,14 @@ public class BookingEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private ItemEntity item;
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     private UserEntity booker;
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updated;
 }
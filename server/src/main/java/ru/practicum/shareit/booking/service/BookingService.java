@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.pageable.PageCursor;
 
 import java.util.List;
 
@@ -9,6 +11,8 @@ import java.util.List;
 public interface BookingService {
     BookingDto createBooking(ShortBookingDto bookingDto);
 
+    List<BatchBookingResultDto> createBookings(int bookerId, List<ShortBookingDto> bookingDtos);
+
     BookingDto approveBooking(Integer userId, Integer bookingId, Boolean isApproved);
 
     BookingDto getBooking(Integer userId, Integer bookingId);
@@ -16,4 +20,12 @@ public interface BookingService {
     List<BookingDto> getUsersBookings(Integer userId, String state, int from, int size);
 
     List<BookingDto> getOwnersBookings(Integer userId, String state, int from, int size);
+
+    List<BookingDto> getUsersBookingsAfter(Integer userId, String state, PageCursor cursor, int size);
+
+    List<BookingDto> getOwnersBookingsAfter(Integer userId, String state, PageCursor cursor, int size);
+
+    String getUsersBookingsETag(Integer userId);
+
+    String getOwnersBookingsETag(Integer userId);
 }
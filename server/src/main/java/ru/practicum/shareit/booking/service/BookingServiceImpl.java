@@ -2,44 +2,65 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.exception.BookingByOwnerException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidBookingOperationException;
 import ru.practicum.shareit.booking.exception.InvalidUserApprovesBookingException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.mapper.ShortBookingMapper;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookedPeriods;
 import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.ListingVersion;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.ItemEntity;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.pageable.CustomPageable;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final Sort BOOKINGS_SORT = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    // Ограничение из schema-postgresql.sql, запрещающее пересечение действующих бронирований одной вещи
+    private static final String BOOKING_PERIOD_CONSTRAINT = "ex_bookings_item_period";
+
     private final BookingStorage bookingStorage;
+    private final BookedPeriods bookedPeriods;
     private final UserStorage userStorage;
+    private final KnownUserIds knownUserIds;
     private final ItemStorage itemStorage;
     private final ShortBookingMapper shortBookingMapper;
     private final BookingMapper bookingMapper;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -57,37 +78,117 @@ public class BookingServiceImpl implements BookingService {
         ItemEntity item = itemStorage.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Item with id %d was not found", itemId)));
         bookingEntity.setItem(item);
+        bookingEntity.setOwnerId(item.getOwnerId());
 
-        if (bookingEntity.getItem().getOwnerId() == bookerId) {
-            throw new BookingByOwnerException(String.format("Trying to book item with id: %d by the owner with id: %d",
-                    itemId, bookerId));
-        }
+        checkCanBeBooked(item, bookerId);
 
-        if (!bookingEntity.getItem().getAvailable()) {
-            throw new InvalidBookingOperationException(String.format("Trying to book item with id: %d. Item is " +
-                    "unavailable", itemId));
+        bookedPeriods.reserve(itemId, bookingEntity.getStart(), bookingEntity.getEnd());
+        try {
+            // Вставка выполняется сразу, чтобы нарушение ограничения на пересечение было поймано здесь
+            bookingEntity = bookingStorage.saveAndFlush(bookingEntity);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw e;
+            }
+            throw new BookingOverlapException(String.format("Item with id %d is already booked for the period " +
+                    "from %s to %s", itemId, bookingEntity.getStart(), bookingEntity.getEnd()));
         }
 
-        bookingEntity = bookingStorage.save(bookingEntity);
-
         log.info("New booking was created: {}", bookingEntity);
 
         return bookingMapper.toDto(bookingEntity);
     }
 
+    // Бронирование, не прошедшее проверку, не мешает остальным: на его месте возвращается причина отказа
+    @Override
+    public List<BatchBookingResultDto> createBookings(int bookerId, List<ShortBookingDto> bookingDtos) {
+        try {
+            return transactionTemplate.execute(status -> createBookingsInBatch(bookerId, bookingDtos));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw e;
+            }
+            // Транзакция пакета откатилась целиком, поэтому каждое бронирование создаётся заново в своей транзакции
+            log.info("Batch of bookings by user with id {} overlaps concurrent bookings, creating them one by one",
+                    bookerId);
+            return bookingDtos.stream()
+                    .map(bookingDto -> createBatchEntry(bookerId, bookingDto))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<BatchBookingResultDto> createBookingsInBatch(int bookerId, List<ShortBookingDto> bookingDtos) {
+        UserEntity booker = userStorage.findById(bookerId)
+                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found", bookerId)));
+        Set<Integer> itemIds = bookingDtos.stream().map(ShortBookingDto::getItemId).collect(Collectors.toSet());
+        Map<Integer, ItemEntity> items = itemStorage.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemEntity::getId, Function.identity()));
+
+        BookingEntity[] bookings = new BookingEntity[bookingDtos.size()];
+        String[] errors = new String[bookingDtos.size()];
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            ShortBookingDto bookingDto = bookingDtos.get(i);
+            try {
+                ItemEntity item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new ItemNotFoundException(String.format("Item with id %d was not found",
+                            bookingDto.getItemId()));
+                }
+                checkCanBeBooked(item, bookerId);
+                bookedPeriods.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+
+                BookingEntity bookingEntity = shortBookingMapper.toEntity(bookingDto);
+                bookingEntity.setStatus(BookingStatus.WAITING);
+                bookingEntity.setBooker(booker);
+                bookingEntity.setItem(item);
+                bookingEntity.setOwnerId(item.getOwnerId());
+                bookings[i] = bookingEntity;
+            } catch (ItemNotFoundException | BookingByOwnerException | InvalidBookingOperationException
+                     | BookingOverlapException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        List<BookingEntity> validBookings = Arrays.stream(bookings).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        bookingStorage.saveAll(validBookings);
+        bookingStorage.flush();
+        log.info("Batch of bookings was created by user with id {}: {} of {} bookings", bookerId,
+                validBookings.size(), bookingDtos.size());
+
+        List<BatchBookingResultDto> results = new ArrayList<>(bookingDtos.size());
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            results.add(bookings[i] != null
+                    ? BatchBookingResultDto.builder().booking(bookingMapper.toDto(bookings[i])).build()
+                    : BatchBookingResultDto.builder().error(errors[i]).build());
+        }
+        return results;
+    }
+
+    private BatchBookingResultDto createBatchEntry(int bookerId, ShortBookingDto bookingDto) {
+        ShortBookingDto entry = ShortBookingDto.builder().bookerId(bookerId).itemId(bookingDto.getItemId())
+                .start(bookingDto.getStart()).end(bookingDto.getEnd()).build();
+        try {
+            BookingDto booking = transactionTemplate.execute(status -> createBooking(entry));
+            return BatchBookingResultDto.builder().booking(booking).build();
+        } catch (ItemNotFoundException | BookingByOwnerException | InvalidBookingOperationException
+                 | BookingOverlapException e) {
+            return BatchBookingResultDto.builder().error(e.getMessage()).build();
+        }
+    }
+
     @Override
     @Transactional
     public List<BookingDto> getUsersBookings(Integer userId, String state, int from, int size) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
 
         State requestState = State.valueOf(state.toUpperCase());
         ;
         LocalDateTime now = LocalDateTime.now();
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = new CustomPageable(from, size, sort);
+        Pageable pageable = new CustomPageable(from, size, BOOKINGS_SORT);
 
         List<BookingEntity> bookings;
 
@@ -120,36 +221,119 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public List<BookingDto> getOwnersBookings(Integer userId, String state, int from, int size) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
+
+        State requestState = State.valueOf(state.toUpperCase());
+        LocalDateTime now = LocalDateTime.now();
+
+        Pageable pageable = new CustomPageable(from, size, BOOKINGS_SORT);
+
+        List<BookingEntity> bookings;
+
+        switch (requestState) {
+            case ALL:
+                bookings = bookingStorage.findByOwnerId(userId, pageable);
+                break;
+            case CURRENT:
+                bookings = bookingStorage.findByOwnerIdAndStartBeforeAndEndAfter(userId, now, now, pageable);
+                break;
+            case PAST:
+                bookings = bookingStorage.findByOwnerIdAndEndBefore(userId, now, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingStorage.findByOwnerIdAndStartAfter(userId, now, pageable);
+                break;
+            case WAITING:
+                bookings = bookingStorage.findByOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
+                break;
+            case REJECTED:
+                bookings = bookingStorage.findByOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
+                break;
+            default:
+                bookings = new ArrayList<>();
+        }
+        return bookings.stream().map(bookingMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDto> getUsersBookingsAfter(Integer userId, String state, PageCursor cursor, int size) {
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
 
         State requestState = State.valueOf(state.toUpperCase());
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.getTimestamp();
+        Integer id = cursor.getId();
+        Pageable pageable = new CustomPageable(0, size, BOOKINGS_SORT);
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = new CustomPageable(from, size, sort);
+        List<BookingEntity> bookings;
+
+        switch (requestState) {
+            case ALL:
+                bookings = bookingStorage.findUsersBookingsAfter(userId, start, id, pageable);
+                break;
+            case CURRENT:
+                bookings = bookingStorage.findUsersCurrentBookingsAfter(userId, start, id, now, pageable);
+                break;
+            case PAST:
+                bookings = bookingStorage.findUsersPastBookingsAfter(userId, start, id, now, pageable);
+                break;
+            case FUTURE:
+                bookings = bookingStorage.findUsersFutureBookingsAfter(userId, start, id, now, pageable);
+                break;
+            case WAITING:
+                bookings = bookingStorage.findUsersBookingsByStatusAfter(userId, start, id, BookingStatus.WAITING,
+                        pageable);
+                break;
+            case REJECTED:
+                bookings = bookingStorage.findUsersBookingsByStatusAfter(userId, start, id, BookingStatus.REJECTED,
+                        pageable);
+                break;
+            default:
+                bookings = new ArrayList<>();
+        }
+        return bookings.stream().map(bookingMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDto> getOwnersBookingsAfter(Integer userId, String state, PageCursor cursor, int size) {
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
+
+        State requestState = State.valueOf(state.toUpperCase());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.getTimestamp();
+        Integer id = cursor.getId();
+        Pageable pageable = new CustomPageable(0, size, BOOKINGS_SORT);
 
         List<BookingEntity> bookings;
 
         switch (requestState) {
             case ALL:
-                bookings = bookingStorage.findByItem_OwnerId(userId, pageable);
+                bookings = bookingStorage.findOwnersBookingsAfter(userId, start, id, pageable);
                 break;
             case CURRENT:
-                bookings = bookingStorage.findByItem_OwnerIdAndStartBeforeAndEndAfter(userId, now, now, pageable);
+                bookings = bookingStorage.findOwnersCurrentBookingsAfter(userId, start, id, now, pageable);
                 break;
             case PAST:
-                bookings = bookingStorage.findByItem_OwnerIdAndEndBefore(userId, now, pageable);
+                bookings = bookingStorage.findOwnersPastBookingsAfter(userId, start, id, now, pageable);
                 break;
             case FUTURE:
-                bookings = bookingStorage.findByItem_OwnerIdAndStartAfter(userId, now, pageable);
+                bookings = bookingStorage.findOwnersFutureBookingsAfter(userId, start, id, now, pageable);
                 break;
             case WAITING:
-                bookings = bookingStorage.findByItem_OwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
+                bookings = bookingStorage.findOwnersBookingsByStatusAfter(userId, start, id, BookingStatus.WAITING,
+                        pageable);
                 break;
             case REJECTED:
-                bookings = bookingStorage.findByItem_OwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
+                bookings = bookingStorage.findOwnersBookingsByStatusAfter(userId, start, id, BookingStatus.REJECTED,
+                        pageable);
                 break;
             default:
                 bookings = new ArrayList<>();
@@ -157,12 +341,26 @@ public class BookingServiceImpl implements BookingService {
         return bookings.stream().map(bookingMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public String getUsersBookingsETag(Integer userId) {
+        ListingVersion version = bookingStorage.getUsersBookingsVersion(userId, LocalDateTime.now());
+        return EntityTags.of(version, "bookings", userId);
+    }
+
+    @Override
+    @Transactional
+    public String getOwnersBookingsETag(Integer userId) {
+        ListingVersion version = bookingStorage.getOwnersBookingsVersion(userId, LocalDateTime.now());
+        return EntityTags.of(version, "owner-bookings", userId);
+    }
+
     @Override
     @Transactional
     public BookingDto getBooking(Integer userId, Integer bookingId) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
 
         BookingEntity booking = bookingStorage.findById(bookingId).orElseThrow(() ->
                 new BookingNotFoundException(String.format("Booking with id %d was not found", bookingId)));
@@ -176,6 +374,24 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toDto(booking);
     }
 
+    private static void checkCanBeBooked(ItemEntity item, int bookerId) {
+        if (item.getOwnerId() == bookerId) {
+            throw new BookingByOwnerException(String.format("Trying to book item with id: %d by the owner with id: %d",
+                    item.getId(), bookerId));
+        }
+
+        if (!item.getAvailable()) {
+            throw new InvalidBookingOperationException(String.format("Trying to book item with id: %d. Item is " +
+                    "unavailable", item.getId()));
+        }
+    }
+
+    // Пересечение с бронированием, созданным другим экземпляром сервера
+    private static boolean isOverlap(DataIntegrityViolationException e) {
+        String cause = e.getMostSpecificCause().getMessage();
+        return cause != null && cause.contains(BOOKING_PERIOD_CONSTRAINT);
+    }
+
     @Override
     @Transactional
     public BookingDto approveBooking(Integer userId, Integer bookingId, Boolean isApproved) {
@@ -196,6 +412,7 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
+            bookedPeriods.release(booking.getItem().getId(), booking.getStart(), booking.getEnd());
         }
 
         booking = bookingStorage.save(booking);
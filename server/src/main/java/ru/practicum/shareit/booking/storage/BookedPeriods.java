@@ -0,0 +1,171 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Периоды ожидающих и подтверждённых бронирований вещей в памяти, [start, end) как в ex_bookings_item_period.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookedPeriods {
+    // Статусы бронирований, занимающих вещь
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingStorage bookingStorage;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, NavigableMap<LocalDateTime, LocalDateTime>> periods = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookedPeriod> bookedPeriods = bookingStorage.findBookedPeriods(ACTIVE_STATUSES, LocalDateTime.now());
+        lock.writeLock().lock();
+        try {
+            periods.clear();
+            for (BookedPeriod period : bookedPeriods) {
+                periods.computeIfAbsent(period.getItemId(), key -> new TreeMap<>())
+                        .put(period.getStart(), period.getEnd());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Booked periods were loaded: {} bookings of {} items", bookedPeriods.size(), periods.size());
+    }
+
+    // Бросает BookingOverlapException при пересечении; при откате транзакции период освобождается
+    public void reserve(int itemId, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            NavigableMap<LocalDateTime, LocalDateTime> itemPeriods = periods.computeIfAbsent(itemId,
+                    key -> new TreeMap<>());
+            removeEnded(itemPeriods, LocalDateTime.now());
+            Map.Entry<LocalDateTime, LocalDateTime> overlapping = findOverlapping(itemPeriods, start, end);
+            if (overlapping != null) {
+                throw new BookingOverlapException(String.format("Item with id %d is already booked from %s to %s",
+                        itemId, overlapping.getKey(), overlapping.getValue()));
+            }
+            itemPeriods.put(start, end);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(itemId, start, end);
+                    }
+                }
+            });
+        }
+    }
+
+    // Внутри транзакции применяется после её фиксации
+    public void release(int itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId, start, end);
+                }
+            });
+        } else {
+            remove(itemId, start, end);
+        }
+    }
+
+    // Закончившиеся периоды не хранятся, поэтому start не раньше текущего момента
+    public boolean isFree(int itemId, LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDateTime, LocalDateTime> itemPeriods = periods.get(itemId);
+            return itemPeriods == null || findOverlapping(itemPeriods, start, end) == null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Свободные промежутки внутри [from, to): начало -> конец. from не раньше текущего момента
+    public NavigableMap<LocalDateTime, LocalDateTime> findFreePeriods(int itemId, LocalDateTime from,
+                                                                      LocalDateTime to) {
+        NavigableMap<LocalDateTime, LocalDateTime> freePeriods = new TreeMap<>();
+        if (!from.isBefore(to)) {
+            return freePeriods;
+        }
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDateTime, LocalDateTime> itemPeriods = periods.getOrDefault(itemId,
+                    Collections.emptyNavigableMap());
+            LocalDateTime freeFrom = from;
+            Map.Entry<LocalDateTime, LocalDateTime> previous = itemPeriods.lowerEntry(from);
+            if (previous != null && previous.getValue().isAfter(freeFrom)) {
+                freeFrom = previous.getValue();
+            }
+            for (Map.Entry<LocalDateTime, LocalDateTime> period : itemPeriods.subMap(from, true, to, false)
+                    .entrySet()) {
+                if (period.getKey().isAfter(freeFrom)) {
+                    freePeriods.put(freeFrom, period.getKey());
+                }
+                if (period.getValue().isAfter(freeFrom)) {
+                    freeFrom = period.getValue();
+                }
+            }
+            if (freeFrom.isBefore(to)) {
+                freePeriods.put(freeFrom, to);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return freePeriods;
+    }
+
+    private void remove(int itemId, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            NavigableMap<LocalDateTime, LocalDateTime> itemPeriods = periods.get(itemId);
+            if (itemPeriods == null) {
+                return;
+            }
+            itemPeriods.remove(start, end);
+            if (itemPeriods.isEmpty()) {
+                periods.remove(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map.Entry<LocalDateTime, LocalDateTime> findOverlapping(
+            NavigableMap<LocalDateTime, LocalDateTime> itemPeriods, LocalDateTime start, LocalDateTime end) {
+        // Пересечься может только последний период, начавшийся раньше конца: у более ранних конец ещё раньше
+        Map.Entry<LocalDateTime, LocalDateTime> previous = itemPeriods.lowerEntry(end);
+        return previous != null && previous.getValue().isAfter(start) ? previous : null;
+    }
+
+    private static void removeEnded(NavigableMap<LocalDateTime, LocalDateTime> itemPeriods, LocalDateTime now) {
+        // Периоды не пересекаются, поэтому по началу упорядочены и концы: закончившиеся всегда идут первыми
+        while (!itemPeriods.isEmpty() && !itemPeriods.firstEntry().getValue().isAfter(now)) {
+            itemPeriods.pollFirstEntry();
+        }
+    }
+}
@@ -1,44 +1,158 @@
 package ru.practicum.shareit.booking.storage;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.etag.ListingVersion;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingStorage extends JpaRepository<BookingEntity, Integer> {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<BookingEntity> findById(Integer id);
+
+    // Условие по колонке booker_id, а не по присоединённой таблице users, чтобы работал индекс бронирований
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1")
     List<BookingEntity> findByBooker_Id(Integer id, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
     List<BookingEntity> findByBooker_IdAndStartBeforeAndEndAfter(Integer id, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.end < ?2")
     List<BookingEntity> findByBooker_IdAndEndBefore(Integer id, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.start > ?2")
     List<BookingEntity> findByBooker_IdAndStartAfter(Integer id, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.status = ?2")
     List<BookingEntity> findByBooker_IdAndStatus(Integer id, BookingStatus status, Pageable pageable);
 
-    List<BookingEntity> findByItem_OwnerId(Integer ownerId, Pageable pageable);
-
-    List<BookingEntity> findByItem_OwnerIdAndStartBeforeAndEndAfter(Integer ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<BookingEntity> findByItem_OwnerIdAndEndBefore(Integer ownerId, LocalDateTime end, Pageable pageable);
-
-    List<BookingEntity> findByItem_OwnerIdAndStartAfter(Integer ownerId, LocalDateTime start, Pageable pageable);
-
-    List<BookingEntity> findByItem_OwnerIdAndStatus(Integer ownerId, BookingStatus status, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingEntity> findByOwnerId(Integer ownerId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingEntity> findByOwnerIdAndStartBeforeAndEndAfter(Integer ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingEntity> findByOwnerIdAndEndBefore(Integer ownerId, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingEntity> findByOwnerIdAndStartAfter(Integer ownerId, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingEntity> findByOwnerIdAndStatus(Integer ownerId, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findUsersBookingsAfter(Integer bookerId, LocalDateTime cursorStart, Integer cursorId,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.start < ?4 and b.end > ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findUsersCurrentBookingsAfter(Integer bookerId, LocalDateTime cursorStart, Integer cursorId,
+            LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.end < ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findUsersPastBookingsAfter(Integer bookerId, LocalDateTime cursorStart, Integer cursorId,
+            LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.start > ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findUsersFutureBookingsAfter(Integer bookerId, LocalDateTime cursorStart, Integer cursorId,
+            LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.booker.id = ?1 and b.status = ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findUsersBookingsByStatusAfter(Integer bookerId, LocalDateTime cursorStart, Integer cursorId,
+            BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.ownerId = ?1" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findOwnersBookingsAfter(Integer ownerId, LocalDateTime cursorStart, Integer cursorId,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.ownerId = ?1 and b.start < ?4 and b.end > ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findOwnersCurrentBookingsAfter(Integer ownerId, LocalDateTime cursorStart, Integer cursorId,
+            LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.ownerId = ?1 and b.end < ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findOwnersPastBookingsAfter(Integer ownerId, LocalDateTime cursorStart, Integer cursorId,
+            LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.ownerId = ?1 and b.start > ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findOwnersFutureBookingsAfter(Integer ownerId, LocalDateTime cursorStart, Integer cursorId,
+            LocalDateTime now, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from BookingEntity b where b.ownerId = ?1 and b.status = ?4" +
+            " and b.start <= ?2 and (b.start < ?2 or b.id < ?3)")
+    List<BookingEntity> findOwnersBookingsByStatusAfter(Integer ownerId, LocalDateTime cursorStart, Integer cursorId,
+            BookingStatus status, Pageable pageable);
 
     List<BookingEntity> findByItem_Id(Integer id);
 
-    List<BookingEntity> findByItem_OwnerId(Integer ownerId);
-
     List<BookingEntity> findByItem_IdAndBooker_IdAndStatusAndEndBefore(Integer id, Integer id1, BookingStatus status, LocalDateTime end);
 
-    List<BookingEntity> findByItem_IdAndStatusNotIn(Integer id, Collection<BookingStatus> statuses);
-
-
+    Optional<BookingEntity> findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByEndDesc(
+            Integer id, Collection<BookingStatus> statuses, LocalDateTime start);
+
+    Optional<BookingEntity> findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAsc(
+            Integer id, Collection<BookingStatus> statuses, LocalDateTime start);
+
+    @Query("select b from BookingEntity b " +
+            "where b.item.id in ?1 and b.status not in ?2 and b.start < ?3 " +
+            "and b.end = (select max(lb.end) from BookingEntity lb " +
+            "where lb.item.id = b.item.id and lb.status not in ?2 and lb.start < ?3)")
+    List<BookingEntity> findLastBookings(Collection<Integer> itemIds, Collection<BookingStatus> excludedStatuses,
+                                         LocalDateTime now);
+
+    @Query("select b from BookingEntity b " +
+            "where b.item.id in ?1 and b.status not in ?2 and b.start > ?3 " +
+            "and b.start = (select min(nb.start) from BookingEntity nb " +
+            "where nb.item.id = b.item.id and nb.status not in ?2 and nb.start > ?3)")
+    List<BookingEntity> findNextBookings(Collection<Integer> itemIds, Collection<BookingStatus> excludedStatuses,
+                                         LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.start as start, b.end as end from BookingEntity b " +
+            "where b.status in ?1 and b.end > ?2")
+    List<BookedPeriod> findBookedPeriods(Collection<BookingStatus> statuses, LocalDateTime now);
+
+    @Query("select count(b) as count, max(b.updated) as lastModified, max(i.updated) as itemsModified, " +
+            "max(u.updated) as usersModified, sum(case when b.start < ?2 then 1 else 0 end) as started, " +
+            "sum(case when b.end < ?2 then 1 else 0 end) as ended " +
+            "from BookingEntity b join b.item i join b.booker u where b.booker.id = ?1")
+    ListingVersion getUsersBookingsVersion(Integer bookerId, LocalDateTime now);
+
+    @Query("select count(b) as count, max(b.updated) as lastModified, max(i.updated) as itemsModified, " +
+            "max(u.updated) as usersModified, sum(case when b.start < ?2 then 1 else 0 end) as started, " +
+            "sum(case when b.end < ?2 then 1 else 0 end) as ended " +
+            "from BookingEntity b join b.item i join b.booker u where b.ownerId = ?1")
+    ListingVersion getOwnersBookingsVersion(Integer ownerId, LocalDateTime now);
 }
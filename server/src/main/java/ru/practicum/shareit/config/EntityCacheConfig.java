@@ -0,0 +1,64 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine; регион, не описанный в REGIONS, останавливает запуск.
+ */
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+    public static final String USERS_REGION = "users";
+    public static final String ITEMS_REGION = "items";
+    private static final String ENABLED_PROPERTY = "shareit.entity-cache.enabled";
+    private static final List<String> REGIONS = List.of(USERS_REGION, ITEMS_REGION);
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        // Собственный провайдер, чтобы каждый контекст Spring получал отдельный CacheManager
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            // Hibernate хранит в кэше разобранное состояние сущности, копировать его при каждом чтении не нужно
+            configuration.setStoreByValue(false);
+            configuration.setMaximumSize(OptionalLong.of(properties.getMaxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED_PROPERTY, havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer entityCacheHibernatePropertiesCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED_PROPERTY, havingValue = "false")
+    public HibernatePropertiesCustomizer disabledEntityCacheHibernatePropertiesCustomizer() {
+        // Без явного false Hibernate сам выберет JCache из classpath и создаст регионы без ограничений
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+}
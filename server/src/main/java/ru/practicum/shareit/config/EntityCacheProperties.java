@@ -0,0 +1,15 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.entity-cache")
+public class EntityCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    // Ограничивает устаревание, если таблицы меняются в обход приложения
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -8,11 +8,14 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.exception.BookingByOwnerException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidBookingOperationException;
 import ru.practicum.shareit.booking.exception.InvalidUserApprovesBookingException;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.exception.IllegalAddCommentOperationException;
+import ru.practicum.shareit.item.exception.InvalidItemFileFormatException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.pageable.InvalidCursorException;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
@@ -67,6 +70,13 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler(BookingOverlapException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlapException(BookingOverlapException e) {
+        log.error("Error occurred. Booking overlaps another booking of the item: {}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler(IllegalAddCommentOperationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalAddCommentOperationException(IllegalAddCommentOperationException e) {
@@ -88,6 +98,20 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCursorException(InvalidCursorException e) {
+        log.error("Error occurred. Invalid page cursor: {}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidItemFileFormatException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidItemFileFormatException(InvalidItemFileFormatException e) {
+        log.error("Error occurred. Invalid item file format: {}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherExceptions(Throwable t) {
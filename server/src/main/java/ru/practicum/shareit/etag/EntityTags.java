@@ -0,0 +1,31 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+/**
+ * Строгие ETag списков по ListingVersion, проверяемые без выборки самих записей.
+ */
+public final class EntityTags {
+    private EntityTags() {
+    }
+
+    // scope отличает выдачи друг от друга, например вид списка и пользователь
+    public static String of(ListingVersion version, Object... scope) {
+        StringJoiner joiner = new StringJoiner("|");
+        for (Object part : scope) {
+            joiner.add(String.valueOf(part));
+        }
+        joiner.add(String.valueOf(version.getCount()))
+                .add(String.valueOf(version.getLastModified()))
+                .add(String.valueOf(version.getItemsModified()))
+                .add(String.valueOf(version.getUsersModified()))
+                .add(String.valueOf(version.getBookingsModified()))
+                .add(String.valueOf(version.getRelatedCount()))
+                .add(String.valueOf(version.getStarted()))
+                .add(String.valueOf(version.getEnded()));
+        return "\"" + DigestUtils.md5DigestAsHex(joiner.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
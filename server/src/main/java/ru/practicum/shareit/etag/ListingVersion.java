@@ -0,0 +1,28 @@
+package ru.practicum.shareit.etag;
+
+import java.time.LocalDateTime;
+
+/**
+ * Агрегаты для ETag списка; каждый запрос заполняет только нужные ему поля, остальные null.
+ */
+public interface ListingVersion {
+    // Без учёта страницы
+    Long getCount();
+
+    LocalDateTime getLastModified();
+
+    LocalDateTime getItemsModified();
+
+    LocalDateTime getUsersModified();
+
+    LocalDateTime getBookingsModified();
+
+    // Комментарии к вещам или вещи в ответ на запросы
+    Long getRelatedCount();
+
+    // Меняется со временем без изменения данных
+    Long getStarted();
+
+    // Меняется со временем без изменения данных
+    Long getEnded();
+}
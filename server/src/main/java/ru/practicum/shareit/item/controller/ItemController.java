@@ -2,11 +2,26 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.exception.InvalidItemFileFormatException;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemTransferService;
+import ru.practicum.shareit.pageable.PageCursor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,6 +30,7 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ItemTransferService itemTransferService;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") int userId, @RequestBody ItemDto itemDto) {
@@ -24,6 +40,26 @@ public class ItemController {
         return createdItemDto;
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ItemFileFormat.CSV_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) throws IOException {
+        ItemFileFormat format = ItemFileFormat.from(contentType)
+                .orElseThrow(() -> new InvalidItemFileFormatException("Unsupported content type: " + contentType));
+        return itemTransferService.importItems(userId, format, body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                             @RequestParam(name = "format", defaultValue = "ndjson")
+                                                             String formatParam) {
+        ItemFileFormat format = ItemFileFormat.from(formatParam)
+                .orElseThrow(() -> new InvalidItemFileFormatException("Unknown format: " + formatParam));
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(itemTransferService.exportItems(userId, format));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable("itemId") int itemId,
                               @RequestBody ItemDto itemDto) {
@@ -40,20 +76,46 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> getOwnersItems(@RequestHeader("X-Sharer-User-Id") int userId,
-                                        @RequestParam(name = "from") Integer from,
-                                        @RequestParam(name = "size") Integer size) {
-        return itemService.getOwnersItems(userId, from, size);
+    public ResponseEntity<List<ItemDto>> getOwnersItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                        @RequestParam(name = "size") Integer size,
+                                                        @RequestParam(name = "cursor", required = false) String cursor,
+                                                        WebRequest webRequest) {
+        PageCursor after = cursor == null ? null : PageCursor.decodeId(cursor);
+        if (webRequest.checkNotModified(itemService.getOwnersItemsETag(userId))) {
+            return null;
+        }
+        List<ItemDto> items = after == null
+                ? itemService.getOwnersItems(userId, from, size)
+                : itemService.getOwnersItemsAfter(userId, after, size);
+        return PageCursor.withNextCursor(items, size, item -> PageCursor.of(item.getId()));
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") int userId,
                                      @RequestParam("text") String text,
                                      @RequestParam(name = "from") Integer from,
-                                     @RequestParam(name = "size") Integer size) {
+                                     @RequestParam(name = "size") Integer size,
+                                     @RequestParam(name = "start", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(name = "end", required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if (start != null && end != null) {
+            return itemService.searchAvailableItems(text, start, end, from, size);
+        }
         return itemService.searchItems(text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public List<FreePeriodDto> getItemAvailability(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                   @PathVariable("itemId") int itemId,
+                                                   @RequestParam(name = "from", required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam(name = "to", required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") int userId, @PathVariable("itemId") Integer itemId,
                                  @RequestBody CommentDto commentDto) {
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Форматы файлов импорта и экспорта вещей: одна вещь на строку JSON или на строку CSV с заголовком.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ItemFileFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    public static Optional<ItemFileFormat> from(String format) {
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(format))
+                .findFirst();
+    }
+
+    public static Optional<ItemFileFormat> from(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(value -> value.mediaType.isCompatibleWith(contentType))
+                .findFirst();
+    }
+}
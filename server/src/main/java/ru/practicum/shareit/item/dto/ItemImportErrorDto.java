@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Причина отказа в импорте строки. row - номер строки файла начиная с 1, заголовок CSV тоже считается.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportErrorDto {
+    private long row;
+    private String error;
+}
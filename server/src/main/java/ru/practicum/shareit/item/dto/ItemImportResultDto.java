@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportResultDto {
+    private long imported;
+    private long failed;
+    private List<ItemImportErrorDto> errors;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * Порядок свойств задаёт порядок колонок CSV, при импорте id игнорируется.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "name", "description", "available", "requestId"})
+public class ItemTransferDto {
+    private Integer id;
+    @NotBlank(message = "Field name should not be blank")
+    @Size(max = 255, message = "Field name should not be longer than {max} characters")
+    private String name;
+    @NotBlank(message = "Field description should not be blank")
+    @Size(max = 255, message = "Field description should not be longer than {max} characters")
+    private String description;
+    @NotNull(message = "Field available should not be null")
+    private Boolean available;
+    private Integer requestId;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.exception;
+
+public class InvalidItemFileFormatException extends RuntimeException {
+    public InvalidItemFileFormatException(String message) {
+        super(message);
+    }
+}
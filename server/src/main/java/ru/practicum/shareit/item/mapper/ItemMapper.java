@@ -1,12 +1,20 @@
 package ru.practicum.shareit.item.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemTransferDto;
 import ru.practicum.shareit.item.model.ItemEntity;
 
 @Mapper(componentModel = "spring")
 public interface ItemMapper {
+    @Mapping(target = "updated", ignore = true)
     ItemEntity toEntity(ItemDto itemDto);
 
     ItemDto toDto(ItemEntity itemEntity);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "updated", ignore = true)
+    ItemEntity toEntity(ItemTransferDto itemTransferDto);
 }
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class CommentEntity {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Integer id;
     @Column(name = "text", nullable = false)
     private String text;
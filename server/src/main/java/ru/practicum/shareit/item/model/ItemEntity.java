@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.practicum.shareit.config.EntityCacheConfig;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -10,11 +15,14 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.ITEMS_REGION)
 @Table(name = "items")
 public class ItemEntity {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "name", nullable = false)
@@ -26,9 +34,13 @@ public class ItemEntity {
     @Column(name = "available", nullable = false)
     private Boolean available;
 
-    @Column(name = "owner_id")
+    @Column(name = "owner_id", updatable = false)
     private Integer ownerId;
 
     @Column(name = "request_id")
     private Integer requestId;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updated;
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Отсортированный список id вещей без упаковки в Integer.
+ */
+class IntPostings {
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    void addTo(BitSet bits) {
+        for (int i = 0; i < size; i++) {
+            bits.set(ids[i]);
+        }
+    }
+
+    // Оставляет в отсортированном префиксе candidates только id из этого списка и возвращает их количество
+    int retainIn(int[] candidates, int count) {
+        int retained = 0;
+        int low = 0;
+        for (int i = 0; i < count && low < size; i++) {
+            int position = Arrays.binarySearch(ids, low, size, candidates[i]);
+            if (position >= 0) {
+                candidates[retained++] = candidates[i];
+                low = position + 1;
+            } else {
+                low = -position - 1;
+            }
+        }
+        return retained;
+    }
+}
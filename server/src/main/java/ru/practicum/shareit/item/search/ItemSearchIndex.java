@@ -0,0 +1,220 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.service.SearchMode;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Триграммный индекс доступных вещей; ищет как ItemStorage#searchItems, по возрастанию id.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemStorage itemStorage;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntPostings> postings = new HashMap<>();
+    private final Map<Integer, ItemEntity> documents = new HashMap<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemStorage itemStorage, @Value("${shareit.search.mode:like}") SearchMode searchMode) {
+        this.itemStorage = itemStorage;
+        this.enabled = searchMode == SearchMode.INDEX;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            Page<ItemEntity> page = itemStorage.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+            page.forEach(itemEntity -> apply(copy(itemEntity)));
+            while (page.hasNext()) {
+                page = itemStorage.findAll(page.nextPageable());
+                page.forEach(itemEntity -> apply(copy(itemEntity)));
+            }
+            ready = true;
+            log.info("Item search index was built: {} items, {} terms", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Внутри транзакции применяется после её фиксации
+    public void index(ItemEntity itemEntity) {
+        if (!enabled) {
+            return;
+        }
+        ItemEntity snapshot = copy(itemEntity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(snapshot);
+                }
+            });
+        } else {
+            update(snapshot);
+        }
+    }
+
+    public List<ItemEntity> search(String query, int from, int size) {
+        return search(query, from, size, id -> true);
+    }
+
+    // filter проверяется до отсчёта страницы, поэтому страница содержит только подходящие вещи
+    public List<ItemEntity> search(String query, int from, int size, IntPredicate filter) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<ItemEntity> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (int id : candidates(needle)) {
+                ItemEntity document = documents.get(id);
+                if ((!contains(document.getName(), needle) && !contains(document.getDescription(), needle))
+                        || !filter.test(id)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                    continue;
+                }
+                result.add(copy(document));
+                if (result.size() == size) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void update(ItemEntity itemEntity) {
+        lock.writeLock().lock();
+        try {
+            apply(itemEntity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ItemEntity itemEntity) {
+        int id = itemEntity.getId();
+        ItemEntity previous = documents.remove(id);
+        if (previous != null) {
+            for (String term : terms(previous)) {
+                IntPostings termPostings = postings.get(term);
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (Boolean.TRUE.equals(itemEntity.getAvailable())) {
+            documents.put(id, itemEntity);
+            for (String term : terms(itemEntity)) {
+                postings.computeIfAbsent(term, key -> new IntPostings()).add(id);
+            }
+        }
+    }
+
+    private int[] candidates(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            BitSet bits = new BitSet();
+            postings.forEach((term, termPostings) -> {
+                if (term.contains(needle)) {
+                    termPostings.addTo(bits);
+                }
+            });
+            return bits.stream().toArray();
+        }
+        List<IntPostings> lists = new ArrayList<>();
+        for (String gram : grams(needle)) {
+            IntPostings termPostings = postings.get(gram);
+            if (termPostings == null) {
+                return new int[0];
+            }
+            lists.add(termPostings);
+        }
+        lists.sort(Comparator.comparingInt(IntPostings::size));
+        int[] candidates = lists.get(0).toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainIn(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static Set<String> terms(ItemEntity itemEntity) {
+        Set<String> terms = new HashSet<>();
+        addTerms(terms, itemEntity.getName());
+        addTerms(terms, itemEntity.getDescription());
+        return terms;
+    }
+
+    private static void addTerms(Set<String> terms, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String lowerCaseText = text.toLowerCase(Locale.ROOT);
+        if (lowerCaseText.length() < GRAM_LENGTH) {
+            terms.add(lowerCaseText);
+        } else {
+            terms.addAll(grams(lowerCaseText));
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static boolean contains(String text, String needle) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(needle);
+    }
+
+    private static ItemEntity copy(ItemEntity itemEntity) {
+        return ItemEntity.builder().id(itemEntity.getId()).name(itemEntity.getName())
+                .description(itemEntity.getDescription()).available(itemEntity.getAvailable())
+                .ownerId(itemEntity.getOwnerId()).requestId(itemEntity.getRequestId()).build();
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pageable.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -14,7 +17,15 @@ public interface ItemService {
 
     List<ItemDto> getOwnersItems(int ownerId, int from, int size);
 
+    List<ItemDto> getOwnersItemsAfter(int ownerId, PageCursor cursor, int size);
+
+    String getOwnersItemsETag(int ownerId);
+
     List<ItemDto> searchItems(String query, int from, int size);
 
+    List<ItemDto> searchAvailableItems(String query, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    List<FreePeriodDto> getItemAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(Integer userId, Integer itemId, CommentDto commentDto);
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -9,8 +10,12 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.mapper.BookingInfoMapper;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookedPeriods;
 import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.ListingVersion;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.IllegalAddCommentOperationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
@@ -18,43 +23,58 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.CommentEntity;
 import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.storage.CommentStorage;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.pageable.CustomPageable;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    // Период, за который возвращаются свободные промежутки вещи, если конец не указан
+    private static final Duration DEFAULT_AVAILABILITY_PERIOD = Duration.ofDays(90);
+
     private final UserStorage userStorage;
+    private final KnownUserIds knownUserIds;
     private final ItemStorage itemStorage;
     private final ItemRequestStorage itemRequestStorage;
     private final CommentStorage commentStorage;
     private final BookingStorage bookingStorage;
+    private final BookedPeriods bookedPeriods;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
     private final BookingInfoMapper bookingInfoMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    @Value("${shareit.search.mode:like}")
+    private final SearchMode searchMode;
 
     @Override
     @Transactional
     public ItemDto createItem(int ownerId, ItemDto itemDto) {
         ItemEntity itemEntity = itemMapper.toEntity(itemDto);
         itemEntity.setOwnerId(ownerId);
-        userStorage.findById(itemEntity.getOwnerId())
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        ownerId)));
+        if (!knownUserIds.exists(ownerId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", ownerId));
+        }
         Integer requestId = itemEntity.getRequestId();
 
         if (requestId != null) {
@@ -64,6 +84,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemEntity = itemStorage.save(itemEntity);
+        itemSearchIndex.index(itemEntity);
         log.info("New item was added to database: {}", itemEntity);
         return itemMapper.toDto(itemEntity);
     }
@@ -72,9 +93,9 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public ItemDto updateItem(int userId, ItemDto itemDto) {
         ItemEntity itemEntityUpdated = itemMapper.toEntity(itemDto);
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
         ItemEntity itemEntity = itemStorage.findById(itemEntityUpdated.getId())
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Item with id %d was not found",
                         itemEntityUpdated.getId())));
@@ -84,6 +105,7 @@ public class ItemServiceImpl implements ItemService {
         }
         updateItemFields(itemEntity, itemEntityUpdated);
         itemEntity = itemStorage.save(itemEntity);
+        itemSearchIndex.index(itemEntity);
         log.info("Item was updated in database: {}", itemEntity);
         return itemMapper.toDto(itemEntity);
     }
@@ -93,21 +115,18 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto getItemById(int userId, int itemId) {
         ItemEntity itemEntity = itemStorage.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Item with id %d was not found", itemId)));
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
         ItemDto itemDto = itemMapper.toDto(itemEntity);
         if (itemEntity.getOwnerId() == userId) {
             LocalDateTime now = LocalDateTime.now();
-            List<BookingEntity> bookings = bookingStorage.findByItem_IdAndStatusNotIn(
-                    itemId, List.of(BookingStatus.REJECTED, BookingStatus.CANCELED));
+            List<BookingStatus> excludedStatuses = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
 
-            bookings.stream().filter(bookingEntity ->
-                            bookingEntity.getStart().isBefore(now)).max(Comparator.comparing(BookingEntity::getEnd))
+            bookingStorage.findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByEndDesc(itemId, excludedStatuses, now)
                     .ifPresent(lastBooking -> itemDto.setLastBooking(bookingInfoMapper.toDto(lastBooking)));
 
-            bookings.stream().filter(bookingEntity ->
-                            bookingEntity.getStart().isAfter(now)).min(Comparator.comparing(BookingEntity::getStart))
+            bookingStorage.findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAsc(itemId, excludedStatuses, now)
                     .ifPresent(nextBooking -> itemDto.setNextBooking(bookingInfoMapper.toDto(nextBooking)));
         }
         List<CommentEntity> comments = commentStorage.findByItem_Id(itemId);
@@ -122,53 +141,109 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public List<ItemDto> getOwnersItems(int ownerId, int from, int size) {
-        userStorage.findById(ownerId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        ownerId)));
+        if (!knownUserIds.exists(ownerId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", ownerId));
+        }
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
         Pageable pageable = new CustomPageable(from, size, sort);
-        List<ItemEntity> itemEntities = itemStorage.findByOwnerId(ownerId, pageable);
-
-        List<ItemDto> itemDtos = itemEntities.stream().map(itemMapper::toDto).collect(Collectors.toList());
-        List<BookingEntity> bookings = bookingStorage.findByItem_OwnerId(ownerId);
-        List<CommentEntity> comments = commentStorage.findByItem_OwnerId(ownerId);
-        LocalDateTime now = LocalDateTime.now();
-        for (ItemDto itemDto : itemDtos) {
-            List<BookingEntity> itemBookings = bookings.stream()
-                    .filter(bookingEntity -> Objects.equals(bookingEntity.getItem().getId(), itemDto.getId())
-                            && bookingEntity.getStatus() != BookingStatus.REJECTED)
-                    .collect(Collectors.toList());
+        return toOwnersItemDtos(itemStorage.findByOwnerId(ownerId, pageable));
+    }
 
-            itemBookings.stream().filter(bookingEntity ->
-                            bookingEntity.getStart().isBefore(now)).max(Comparator.comparing(BookingEntity::getEnd))
-                    .ifPresent(lastBooking -> itemDto.setLastBooking(bookingInfoMapper.toDto(lastBooking)));
+    @Override
+    @Transactional
+    public List<ItemDto> getOwnersItemsAfter(int ownerId, PageCursor cursor, int size) {
+        if (!knownUserIds.exists(ownerId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", ownerId));
+        }
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        Pageable pageable = new CustomPageable(0, size, sort);
+        return toOwnersItemDtos(itemStorage.findByOwnerIdAfter(ownerId, cursor.getId(), pageable));
+    }
 
-            itemBookings.stream().filter(bookingEntity ->
-                            bookingEntity.getStart().isAfter(now)).min(Comparator.comparing(BookingEntity::getStart))
-                    .ifPresent(nextBooking -> itemDto.setNextBooking(bookingInfoMapper.toDto(nextBooking)));
+    @Override
+    @Transactional
+    public String getOwnersItemsETag(int ownerId) {
+        ListingVersion version = itemStorage.getOwnersItemsVersion(ownerId, LocalDateTime.now());
+        return EntityTags.of(version, "items", ownerId);
+    }
 
-            List<CommentDto> itemComments = comments.stream()
-                    .filter(commentEntity -> Objects.equals(commentEntity.getItem().getId(), itemDto.getId()))
-                    .map(commentMapper::toDto)
+    @Override
+    @Transactional
+    public List<ItemDto> searchItems(String query, int from, int size) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        if (searchMode == SearchMode.INDEX && itemSearchIndex.isReady()) {
+            return itemSearchIndex.search(query, from, size).stream().map(itemMapper::toDto)
                     .collect(Collectors.toList());
-
-            itemDto.setComments(itemComments);
         }
-        return itemDtos;
+        List<ItemEntity> itemEntities;
+        switch (searchMode) {
+            case FULL_TEXT:
+                String tsQuery = toPrefixTsQuery(query);
+                if (tsQuery.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                itemEntities = itemStorage.searchItemsFullText(tsQuery, new CustomPageable(from, size, Sort.unsorted()));
+                break;
+            default:
+                Sort sort = Sort.by(Sort.Direction.ASC, "id");
+                Pageable pageable = new CustomPageable(from, size, sort);
+                itemEntities = itemStorage.searchItems(query, pageable);
+        }
+        return itemEntities.stream().map(itemMapper::toDto).collect(Collectors.toList());
     }
 
     @Override
     @Transactional
-    public List<ItemDto> searchItems(String query, int from, int size) {
-        if (query == null || query.isBlank()) {
+    public List<ItemDto> searchAvailableItems(String query, LocalDateTime start, LocalDateTime end, int from,
+                                              int size) {
+        if (query == null || query.isBlank() || !start.isBefore(end)) {
             return new ArrayList<>();
         }
-        Sort sort = Sort.by(Sort.Direction.ASC, "id");
-        Pageable pageable = new CustomPageable(from, size, sort);
-        List<ItemEntity> itemEntities = itemStorage.searchItems(query, pageable);
+        if (searchMode == SearchMode.INDEX && itemSearchIndex.isReady()) {
+            return itemSearchIndex.search(query, from, size, itemId -> bookedPeriods.isFree(itemId, start, end))
+                    .stream().map(itemMapper::toDto).collect(Collectors.toList());
+        }
+        List<ItemEntity> itemEntities;
+        switch (searchMode) {
+            case FULL_TEXT:
+                String tsQuery = toPrefixTsQuery(query);
+                if (tsQuery.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                itemEntities = itemStorage.searchAvailableItemsFullText(tsQuery, start, end,
+                        new CustomPageable(from, size, Sort.unsorted()));
+                break;
+            default:
+                Sort sort = Sort.by(Sort.Direction.ASC, "id");
+                Pageable pageable = new CustomPageable(from, size, sort);
+                itemEntities = itemStorage.searchAvailableItems(query, BookedPeriods.ACTIVE_STATUSES, start, end,
+                        pageable);
+        }
         return itemEntities.stream().map(itemMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public List<FreePeriodDto> getItemAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to) {
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
+        ItemEntity itemEntity = itemStorage.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException(String.format("Item with id %d was not found", itemId)));
+        if (!itemEntity.getAvailable()) {
+            return new ArrayList<>();
+        }
+        // Прошедшее время забронировать нельзя, поэтому свободные промежутки начинаются не раньше текущего момента
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime start = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_AVAILABILITY_PERIOD) : to;
+        return bookedPeriods.findFreePeriods(itemId, start, end).entrySet().stream()
+                .map(period -> new FreePeriodDto(period.getKey(), period.getValue()))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Integer userId, Integer itemId, CommentDto commentDto) {
@@ -193,6 +268,49 @@ public class ItemServiceImpl implements ItemService {
         return commentMapper.toDto(commentEntity);
     }
 
+    private List<ItemDto> toOwnersItemDtos(List<ItemEntity> itemEntities) {
+        List<ItemDto> itemDtos = itemEntities.stream().map(itemMapper::toDto).collect(Collectors.toList());
+        if (itemDtos.isEmpty()) {
+            return itemDtos;
+        }
+        List<Integer> itemIds = itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingStatus> excludedStatuses = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+
+        Map<Integer, BookingEntity> lastBookings = groupByItemId(
+                bookingStorage.findLastBookings(itemIds, excludedStatuses, now));
+        Map<Integer, BookingEntity> nextBookings = groupByItemId(
+                bookingStorage.findNextBookings(itemIds, excludedStatuses, now));
+        Map<Integer, List<CommentDto>> comments = commentStorage.findByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(commentEntity -> commentEntity.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+
+        for (ItemDto itemDto : itemDtos) {
+            BookingEntity lastBooking = lastBookings.get(itemDto.getId());
+            if (lastBooking != null) {
+                itemDto.setLastBooking(bookingInfoMapper.toDto(lastBooking));
+            }
+            BookingEntity nextBooking = nextBookings.get(itemDto.getId());
+            if (nextBooking != null) {
+                itemDto.setNextBooking(bookingInfoMapper.toDto(nextBooking));
+            }
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+        }
+        return itemDtos;
+    }
+
+    private String toPrefixTsQuery(String query) {
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private Map<Integer, BookingEntity> groupByItemId(List<BookingEntity> bookings) {
+        return bookings.stream().collect(Collectors.toMap(bookingEntity -> bookingEntity.getItem().getId(),
+                Function.identity(), (first, second) -> first));
+    }
+
     private void updateItemFields(ItemEntity itemEntityFromStorage, ItemEntity itemEntity) {
         if (itemEntity.getName() != null && !itemEntity.getName().isBlank()) {
             itemEntityFromStorage.setName(itemEntity.getName());
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ItemTransferService {
+    ItemImportResultDto importItems(int ownerId, ItemFileFormat format, InputStream input) throws IOException;
+
+    StreamingResponseBody exportItems(int ownerId, ItemFileFormat format);
+}
@@ -0,0 +1,254 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemTransferDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.pageable.CustomPageable;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.storage.KnownUserIds;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт и экспорт вещей владельца; импорт сохраняет вещи порциями в отдельных транзакциях.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemTransferServiceImpl implements ItemTransferService {
+    // Число причин отказа в ответе на импорт, остальные отклонённые строки только считаются
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    // При импорте колонки берутся из заголовка файла, поэтому их порядок и состав могут отличаться от экспорта
+    private static final CsvSchema CSV_IMPORT_SCHEMA = CsvSchema.emptySchema().withHeader();
+    private static final CsvSchema CSV_EXPORT_SCHEMA = CSV_MAPPER.schemaFor(ItemTransferDto.class).withHeader();
+
+    private final KnownUserIds knownUserIds;
+    private final ItemStorage itemStorage;
+    private final ItemRequestStorage itemRequestStorage;
+    private final ItemMapper itemMapper;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    @Value("${shareit.items.import.chunk-size:500}")
+    private int importChunkSize;
+    @Value("${shareit.items.export.page-size:500}")
+    private int exportPageSize;
+
+    @Override
+    public ItemImportResultDto importItems(int ownerId, ItemFileFormat format, InputStream input) throws IOException {
+        if (!knownUserIds.exists(ownerId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", ownerId));
+        }
+        ImportProgress progress = new ImportProgress();
+        Map<Long, ItemEntity> chunk = new LinkedHashMap<>();
+        long row = 0;
+        try (MappingIterator<ItemTransferDto> rows = reader(format).readValues(input)) {
+            while (true) {
+                ItemTransferDto itemDto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row = rows.getCurrentLocation().getLineNr();
+                    itemDto = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    progress.reject(row, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // После синтаксической ошибки начало следующей строки найти нельзя
+                    progress.reject(e.getLocation() != null ? e.getLocation().getLineNr() : row,
+                            String.format("Malformed row, import was stopped: %s", e.getOriginalMessage()));
+                    break;
+                }
+                String error = validate(itemDto);
+                if (error != null) {
+                    progress.reject(row, error);
+                    continue;
+                }
+                ItemEntity itemEntity = itemMapper.toEntity(itemDto);
+                itemEntity.setOwnerId(ownerId);
+                chunk.put(row, itemEntity);
+                if (chunk.size() >= importChunkSize) {
+                    saveChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, progress);
+        }
+        log.info("Items were imported by the owner with id: {}, imported: {}, failed: {}", ownerId,
+                progress.imported, progress.failed);
+        return progress.toDto();
+    }
+
+    @Override
+    public StreamingResponseBody exportItems(int ownerId, ItemFileFormat format) {
+        // Проверка до начала ответа, пока клиенту ещё можно вернуть 404
+        if (!knownUserIds.exists(ownerId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", ownerId));
+        }
+        return output -> writeItems(ownerId, format, output);
+    }
+
+    private void writeItems(int ownerId, ItemFileFormat format, OutputStream output) throws IOException {
+        Pageable pageable = new CustomPageable(0, exportPageSize, Sort.by(Sort.Direction.ASC, "id"));
+        long exported = 0;
+        try (SequenceWriter rows = writer(format).writeValues(output)) {
+            List<ItemTransferDto> page;
+            int cursorId = 0;
+            do {
+                page = itemStorage.findTransferDtosByOwnerIdAfter(ownerId, cursorId, pageable);
+                rows.writeAll(page);
+                exported += page.size();
+                if (!page.isEmpty()) {
+                    cursorId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == exportPageSize);
+        }
+        if (format == ItemFileFormat.NDJSON && exported > 0) {
+            // Разделитель пишется только между строками, а в NDJSON перевод строки завершает каждую
+            output.write('\n');
+        }
+        log.info("Items were exported by the owner with id: {}, exported: {}", ownerId, exported);
+    }
+
+    private void saveChunk(Map<Long, ItemEntity> chunk, ImportProgress progress) {
+        Set<Integer> requestIds = chunk.values().stream()
+                .map(ItemEntity::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!requestIds.isEmpty()) {
+            Set<Integer> existingRequestIds = new HashSet<>(itemRequestStorage.findExistingIds(requestIds));
+            Iterator<Map.Entry<Long, ItemEntity>> entries = chunk.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, ItemEntity> entry = entries.next();
+                Integer requestId = entry.getValue().getRequestId();
+                if (requestId != null && !existingRequestIds.contains(requestId)) {
+                    progress.reject(entry.getKey(), String.format("Item request with id %d was not found",
+                            requestId));
+                    entries.remove();
+                }
+            }
+        }
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ItemEntity> itemEntities = new ArrayList<>(chunk.values());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemStorage.saveAll(itemEntities);
+                itemStorage.flush();
+                itemEntities.forEach(itemSearchIndex::index);
+                // При open-in-view порции делят один EntityManager, без очистки он хранил бы весь файл
+                entityManager.clear();
+            });
+        } catch (DataAccessException e) {
+            log.error("Failed to save imported items", e);
+            String error = String.format("Failed to save item: %s", e.getMostSpecificCause().getMessage());
+            chunk.keySet().forEach(row -> progress.reject(row, error));
+            return;
+        }
+        progress.imported += itemEntities.size();
+    }
+
+    private ObjectReader reader(ItemFileFormat format) {
+        if (format == ItemFileFormat.CSV) {
+            return CSV_MAPPER.readerFor(ItemTransferDto.class).with(CSV_IMPORT_SCHEMA);
+        }
+        return objectMapper.readerFor(ItemTransferDto.class);
+    }
+
+    private ObjectWriter writer(ItemFileFormat format) {
+        ObjectWriter writer = format == ItemFileFormat.CSV
+                ? CSV_MAPPER.writerFor(ItemTransferDto.class).with(CSV_EXPORT_SCHEMA)
+                : objectMapper.writerFor(ItemTransferDto.class).withRootValueSeparator("\n");
+        // Поток закрывает Spring MVC; сброс после каждой вещи отправлял бы пакет на каждую строку
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private String validate(ItemTransferDto itemDto) {
+        if (itemDto == null) {
+            return "Row should contain an item";
+        }
+        Set<ConstraintViolation<ItemTransferDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static class ImportProgress {
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void reject(long row, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ItemImportErrorDto(row, error));
+            }
+        }
+
+        private ItemImportResultDto toDto() {
+            // Строки с несуществующим запросом отклоняются при сохранении порции, позже строк с ошибками формата
+            errors.sort(Comparator.comparingLong(ItemImportErrorDto::getRow));
+            return new ItemImportResultDto(imported, failed, errors);
+        }
+    }
+}
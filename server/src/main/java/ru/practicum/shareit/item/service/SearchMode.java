@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+public enum SearchMode {
+    // Подстрока в названии или описании, работает на любой БД
+    LIKE,
+    // Полнотекстовый поиск по префиксам слов с ранжированием, только PostgreSQL
+    FULL_TEXT,
+    // Инвертированный индекс по триграммам в памяти сервера, см. ItemSearchIndex
+    INDEX
+}
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.CommentEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentStorage extends JpaRepository<CommentEntity, Integer> {
     List<CommentEntity> findByItem_Id(Integer id);
 
-    List<CommentEntity> findByItem_OwnerId(Integer ownerId);
-
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from CommentEntity c where c.item.id in ?1")
+    List<CommentEntity> findByItem_IdIn(Collection<Integer> ids);
 }
@@ -4,19 +4,65 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.etag.ListingVersion;
+import ru.practicum.shareit.item.dto.ItemTransferDto;
 import ru.practicum.shareit.item.model.ItemEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemStorage extends JpaRepository<ItemEntity, Integer> {
     List<ItemEntity> findByRequestId(Integer requestId);
 
+    List<ItemEntity> findByRequestIdIn(Collection<Integer> requestIds);
+
     @Query("select i from ItemEntity i where i.ownerId = ?1")
     List<ItemEntity> findByOwnerId(Integer ownerId, Pageable pageable);
 
+    @Query("select i from ItemEntity i where i.ownerId = ?1 and i.id > ?2")
+    List<ItemEntity> findByOwnerIdAfter(Integer ownerId, Integer cursorId, Pageable pageable);
+
+    // Строки экспорта не попадают в контекст постоянства, поэтому выгрузка страницами не накапливает сущности
+    @Query("select new ru.practicum.shareit.item.dto.ItemTransferDto(i.id, i.name, i.description, i.available, " +
+            "i.requestId) from ItemEntity i where i.ownerId = ?1 and i.id > ?2")
+    List<ItemTransferDto> findTransferDtosByOwnerIdAfter(Integer ownerId, Integer cursorId, Pageable pageable);
+
     @Query("select i from ItemEntity i " +
             "where (lower(i.name) like lower(concat('%', ?1, '%')) or lower(i.description) " +
             "like lower(concat('%', ?1, '%'))) and i.available=true")
     List<ItemEntity> searchItems(String query, Pageable pageable);
+
+    @Query(value = "select * from items i " +
+            "where i.available = true and i.search_vector @@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', ?1)) desc, i.id", nativeQuery = true)
+    List<ItemEntity> searchItemsFullText(String tsQuery, Pageable pageable);
+
+    @Query("select i from ItemEntity i " +
+            "where (lower(i.name) like lower(concat('%', ?1, '%')) or lower(i.description) " +
+            "like lower(concat('%', ?1, '%'))) and i.available=true " +
+            "and not exists (select b.id from BookingEntity b where b.item = i and b.status in ?2 " +
+            "and b.start < ?4 and b.end > ?3)")
+    List<ItemEntity> searchAvailableItems(String query, Collection<BookingStatus> statuses, LocalDateTime start,
+                                          LocalDateTime end, Pageable pageable);
+
+    // Условие на бронирования совпадает с ограничением ex_bookings_item_period, поэтому проверка идёт по его индексу
+    @Query(value = "select * from items i " +
+            "where i.available = true and i.search_vector @@ to_tsquery('simple', ?1) " +
+            "and not exists (select 1 from bookings b where b.item_id = i.id " +
+            "and b.status in ('WAITING', 'APPROVED') " +
+            "and tsrange(b.start_date, b.end_date) && tsrange(cast(?2 as timestamp), cast(?3 as timestamp))) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', ?1)) desc, i.id", nativeQuery = true)
+    List<ItemEntity> searchAvailableItemsFullText(String tsQuery, LocalDateTime start, LocalDateTime end,
+                                                  Pageable pageable);
+
+    @Query("select count(i) as count, max(i.updated) as lastModified, " +
+            "(select max(b.updated) from BookingEntity b where b.ownerId = ?1) as bookingsModified, " +
+            "(select count(b) from BookingEntity b where b.ownerId = ?1 and b.start < ?2) as started, " +
+            "(select count(c) from CommentEntity c where c.item.ownerId = ?1) as relatedCount, " +
+            "(select max(a.updated) from CommentEntity c join c.author a where c.item.ownerId = ?1) " +
+            "as usersModified from ItemEntity i where i.ownerId = ?1")
+    ListingVersion getOwnersItemsVersion(Integer ownerId, LocalDateTime now);
 }
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.pageable;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: ключ последней строки страницы, id или (timestamp, id).
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final Integer id;
+
+    private PageCursor(LocalDateTime timestamp, Integer id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static PageCursor of(Integer id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime timestamp, Integer id) {
+        return new PageCursor(timestamp, id);
+    }
+
+    public static PageCursor decodeId(String cursor) {
+        String[] parts = decodeParts(cursor);
+        if (parts.length != 1) {
+            throw invalid(cursor);
+        }
+        return of(parseId(parts[0], cursor));
+    }
+
+    public static PageCursor decodeTimestampAndId(String cursor) {
+        String[] parts = decodeParts(cursor);
+        if (parts.length != 2) {
+            throw invalid(cursor);
+        }
+        try {
+            return of(LocalDateTime.parse(parts[0]), parseId(parts[1], cursor));
+        } catch (DateTimeParseException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    // Заголовок ставится, только если страница заполнена целиком
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, PageCursor> keyOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, keyOf.apply(page.get(page.size() - 1)).encode());
+        }
+        return response.body(page);
+    }
+
+    public String encode() {
+        String key = timestamp == null ? String.valueOf(id) : timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeParts(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return key.split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static Integer parseId(String id, String cursor) {
+        try {
+            return Integer.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static InvalidCursorException invalid(String cursor) {
+        return new InvalidCursorException(String.format("Invalid page cursor: %s", cursor));
+    }
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -27,7 +30,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemResponseDto> getUsersItemRequests(@RequestHeader("X-Sharer-User-Id") int userId) {
+    public List<ItemResponseDto> getUsersItemRequests(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                      WebRequest webRequest) {
+        if (webRequest.checkNotModified(itemRequestService.getUsersItemRequestsETag(userId))) {
+            return null;
+        }
         return itemRequestService.getUsersItemRequests(userId);
     }
 
@@ -38,10 +45,20 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemResponseDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @RequestParam(name = "from") Integer from,
-                                                @RequestParam(name = "size") Integer size) {
-        return itemRequestService.getAllRequests(userId, from, size);
+    public ResponseEntity<List<ItemResponseDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                @RequestParam(name = "size") Integer size,
+                                                                @RequestParam(name = "cursor", required = false) String cursor,
+                                                                WebRequest webRequest) {
+        PageCursor after = cursor == null ? null : PageCursor.decodeTimestampAndId(cursor);
+        if (webRequest.checkNotModified(itemRequestService.getAllRequestsETag(userId))) {
+            return null;
+        }
+        List<ItemResponseDto> requests = after == null
+                ? itemRequestService.getAllRequests(userId, from, size)
+                : itemRequestService.getAllRequestsAfter(userId, after, size);
+        return PageCursor.withNextCursor(requests, size,
+                request -> PageCursor.of(request.getCreated(), request.getId()));
     }
 
 }
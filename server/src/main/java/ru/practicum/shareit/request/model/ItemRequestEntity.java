@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class ItemRequestEntity {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Integer id;
     @Column(name = "description", nullable = false)
     private String description;
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 
@@ -13,4 +14,10 @@ public interface ItemRequestService {
     ItemResponseDto getRequestById(Integer userId, Integer requestId);
 
     List<ItemResponseDto> getAllRequests(Integer userId, Integer from, Integer size);
+
+    List<ItemResponseDto> getAllRequestsAfter(Integer userId, PageCursor cursor, Integer size);
+
+    String getUsersItemRequestsETag(Integer userId);
+
+    String getAllRequestsETag(Integer userId);
 }
@@ -5,11 +5,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.ListingVersion;
 import ru.practicum.shareit.item.dto.ShortItemDto;
 import ru.practicum.shareit.item.mapper.ShortItemMapper;
 import ru.practicum.shareit.item.model.ItemEntity;
 import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.pageable.CustomPageable;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
@@ -18,18 +21,22 @@ import ru.practicum.shareit.request.mapper.ItemResponseMapper;
 import ru.practicum.shareit.request.model.ItemRequestEntity;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
-import ru.practicum.shareit.user.storage.UserStorage;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final UserStorage userStorage;
+    private static final Sort REQUESTS_SORT = Sort.by(Sort.Direction.DESC, "created")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
+    private final KnownUserIds knownUserIds;
     private final ItemStorage itemStorage;
     private final ItemRequestStorage itemRequestStorage;
     private final ItemRequestMapper itemRequestMapper;
@@ -38,9 +45,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto createItemRequest(Integer userId, ItemRequestDto itemRequestDto) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
         ItemRequestEntity itemRequestEntity = ItemRequestEntity.builder()
                 .description(itemRequestDto.getDescription())
                 .created(LocalDateTime.now()).requestorId(userId).build();
@@ -52,28 +59,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemResponseDto> getUsersItemRequests(Integer userId) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
 
         List<ItemRequestEntity> userRequests = itemRequestStorage.findByRequestorIdOrderByCreatedDesc(userId);
-        List<ItemResponseDto> responses = new ArrayList<>();
-        for (ItemRequestEntity request : userRequests) {
-            List<ItemEntity> items = itemStorage.findByRequestId(request.getId());
-            List<ShortItemDto> itemDtos = items.stream().map(shortItemMapper::toDto)
-                    .collect(Collectors.toList());
-            ItemResponseDto itemResponseDto = itemResponseMapper.toDto(request);
-            itemResponseDto.setItems(itemDtos);
-            responses.add(itemResponseDto);
-        }
-        return responses;
+        return toItemResponseDtos(userRequests);
     }
 
     @Override
     public ItemResponseDto getRequestById(Integer userId, Integer requestId) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
 
         ItemRequestEntity request = itemRequestStorage.findById(requestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException(String.format("Item request with id %d was " +
@@ -88,21 +86,51 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemResponseDto> getAllRequests(Integer userId, Integer from, Integer size) {
-        userStorage.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found",
-                        userId)));
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        Pageable pageable = new CustomPageable(from, size, sort);
+        Pageable pageable = new CustomPageable(from, size, REQUESTS_SORT);
         List<ItemRequestEntity> itemRequests = itemRequestStorage.findByRequestorIdNot(userId, pageable);
+        return toItemResponseDtos(itemRequests);
+    }
 
+    @Override
+    public List<ItemResponseDto> getAllRequestsAfter(Integer userId, PageCursor cursor, Integer size) {
+        if (!knownUserIds.exists(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d was not found", userId));
+        }
+
+        Pageable pageable = new CustomPageable(0, size, REQUESTS_SORT);
+        List<ItemRequestEntity> itemRequests = itemRequestStorage.findByRequestorIdNotAfter(userId,
+                cursor.getTimestamp(), cursor.getId(), pageable);
+        return toItemResponseDtos(itemRequests);
+    }
+
+    @Override
+    public String getUsersItemRequestsETag(Integer userId) {
+        ListingVersion version = itemRequestStorage.getUsersRequestsVersion(userId);
+        return EntityTags.of(version, "requests", userId);
+    }
+
+    @Override
+    public String getAllRequestsETag(Integer userId) {
+        ListingVersion version = itemRequestStorage.getOtherUsersRequestsVersion(userId);
+        return EntityTags.of(version, "all-requests", userId);
+    }
+
+    private List<ItemResponseDto> toItemResponseDtos(List<ItemRequestEntity> requests) {
         List<ItemResponseDto> responses = new ArrayList<>();
-        for (ItemRequestEntity request : itemRequests) {
-            List<ItemEntity> items = itemStorage.findByRequestId(request.getId());
-            List<ShortItemDto> itemDtos = items.stream().map(shortItemMapper::toDto)
-                    .collect(Collectors.toList());
+        if (requests.isEmpty()) {
+            return responses;
+        }
+        List<Integer> requestIds = requests.stream().map(ItemRequestEntity::getId).collect(Collectors.toList());
+        Map<Integer, List<ShortItemDto>> itemsByRequestId = itemStorage.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemEntity::getRequestId,
+                        Collectors.mapping(shortItemMapper::toDto, Collectors.toList())));
+        for (ItemRequestEntity request : requests) {
             ItemResponseDto itemResponseDto = itemResponseMapper.toDto(request);
-            itemResponseDto.setItems(itemDtos);
+            itemResponseDto.setItems(itemsByRequestId.getOrDefault(request.getId(), new ArrayList<>()));
             responses.add(itemResponseDto);
         }
         return responses;
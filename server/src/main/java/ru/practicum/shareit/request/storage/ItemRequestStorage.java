@@ -2,14 +2,42 @@ package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.etag.ListingVersion;
 import ru.practicum.shareit.request.model.ItemRequestEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRequestStorage extends JpaRepository<ItemRequestEntity, Integer> {
     List<ItemRequestEntity> findByRequestorIdNot(Integer requestorId, Pageable pageable);
 
+    @Query("select r from ItemRequestEntity r where r.requestorId <> ?1 " +
+            "and r.created <= ?2 and (r.created < ?2 or r.id < ?3)")
+    List<ItemRequestEntity> findByRequestorIdNotAfter(Integer requestorId, LocalDateTime cursorCreated,
+                                                      Integer cursorId, Pageable pageable);
+
     List<ItemRequestEntity> findByRequestorIdOrderByCreatedDesc(Integer requestorId);
+
+    @Query("select r.id from ItemRequestEntity r where r.id in ?1")
+    List<Integer> findExistingIds(Collection<Integer> ids);
+
+    @Query("select count(r) as count, max(r.created) as lastModified, " +
+            "(select count(i) from ItemEntity i where i.requestId in " +
+            "(select ur.id from ItemRequestEntity ur where ur.requestorId = ?1)) as relatedCount, " +
+            "(select max(i.updated) from ItemEntity i where i.requestId in " +
+            "(select ur.id from ItemRequestEntity ur where ur.requestorId = ?1)) as itemsModified " +
+            "from ItemRequestEntity r where r.requestorId = ?1")
+    ListingVersion getUsersRequestsVersion(Integer requestorId);
+
+    @Query("select count(r) as count, max(r.created) as lastModified, " +
+            "(select count(i) from ItemEntity i where i.requestId in " +
+            "(select ar.id from ItemRequestEntity ar where ar.requestorId <> ?1)) as relatedCount, " +
+            "(select max(i.updated) from ItemEntity i where i.requestId in " +
+            "(select ar.id from ItemRequestEntity ar where ar.requestorId <> ?1)) as itemsModified " +
+            "from ItemRequestEntity r where r.requestorId <> ?1")
+    ListingVersion getOtherUsersRequestsVersion(Integer requestorId);
 }
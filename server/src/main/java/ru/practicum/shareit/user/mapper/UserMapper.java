@@ -1,11 +1,13 @@
 package ru.practicum.shareit.user.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.UserEntity;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
+    @Mapping(target = "updated", ignore = true)
     UserEntity toEntity(UserDto userDto);
 
     UserDto toDto(UserEntity userEntity);
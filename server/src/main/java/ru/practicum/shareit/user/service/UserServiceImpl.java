@@ -8,6 +8,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import java.util.List;
@@ -19,6 +20,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserStorage userStorage;
     private final UserMapper userMapper;
+    private final KnownUserIds knownUserIds;
 
     @Override
     @Transactional
@@ -32,6 +34,7 @@ public class UserServiceImpl implements UserService {
     public UserDto createUser(UserDto userDto) {
         UserEntity userEntity = userMapper.toEntity(userDto);
         userEntity = userStorage.save(userEntity);
+        knownUserIds.add(userEntity.getId());
         log.info("New user was created in database: {}", userEntity);
         return userMapper.toDto(userEntity);
     }
@@ -63,6 +66,7 @@ public class UserServiceImpl implements UserService {
         userStorage.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(String.format("User with id %d was not found", id)));
         userStorage.deleteById(id);
+        knownUserIds.remove(id);
         log.info("User with id: {} was deleted from database", id);
     }
 
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Id существующих пользователей в памяти; отрицательный ответ перепроверяется в базе.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KnownUserIds {
+    private final UserStorage userStorage;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet ids = new BitSet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Integer> userIds = userStorage.findAllIds();
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            userIds.forEach(ids::set);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Known user ids were loaded: {} users", userIds.size());
+    }
+
+    public boolean exists(int userId) {
+        if (userId <= 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (ids.get(userId)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return userStorage.existsById(userId);
+    }
+
+    // Внутри транзакции применяется после её фиксации
+    public void add(int userId) {
+        afterCommit(() -> update(userId, true));
+    }
+
+    // Внутри транзакции применяется после её фиксации
+    public void remove(int userId) {
+        afterCommit(() -> update(userId, false));
+    }
+
+    private void update(int userId, boolean exists) {
+        lock.writeLock().lock();
+        try {
+            ids.set(userId, exists);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.UserEntity;
 
+import java.util.List;
+
 @Repository
 public interface UserStorage extends JpaRepository<UserEntity, Integer> {
-
+    @Query("select u.id from UserEntity u")
+    List<Integer> findAllIds();
 }
@@ -0,0 +1,18 @@
+create EXTENSION IF NOT EXISTS pg_trgm;
+
+create INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (lower(name) gin_trgm_ops);
+
+create INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (lower(description) gin_trgm_ops);
+
+alter TABLE items ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+     GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED;
+
+create INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+
+create EXTENSION IF NOT EXISTS btree_gist;
+
+alter TABLE bookings DROP CONSTRAINT IF EXISTS ex_bookings_item_period;
+
+alter TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+     EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+     WHERE (status IN ('WAITING', 'APPROVED'));
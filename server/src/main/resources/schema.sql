@@ -3,18 +3,32 @@ drop table IF EXISTS comments;
 drop table IF EXISTS requests cascade;
 drop table IF EXISTS items;
 drop table IF EXISTS users;
+drop SEQUENCE IF EXISTS users_seq;
+drop SEQUENCE IF EXISTS requests_seq;
+drop SEQUENCE IF EXISTS items_seq;
+drop SEQUENCE IF EXISTS bookings_seq;
+drop SEQUENCE IF EXISTS comments_seq;
+
+-- Шаг последовательностей равен allocationSize в @SequenceGenerator сущностей: Hibernate (оптимизатор pooled-lo)
+-- получает значение последовательности и выдаёт id от него до следующего значения без обращения к базе
+create SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+create SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 create TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
+  updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
   CONSTRAINT pk_user PRIMARY KEY (id),
   CONSTRAINT UQ_USER_EMAIL unique (email)
 );
 
 
 create TABLE IF NOT EXISTS requests (
-     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     id BIGINT NOT NULL,
      description VARCHAR(255) NOT NULL,
      created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
      requestor_id INTEGER NOT NULL,
@@ -24,12 +38,13 @@ create TABLE IF NOT EXISTS requests (
 );
 
 create TABLE IF NOT EXISTS items (
-     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     id BIGINT NOT NULL,
      name VARCHAR(255) NOT NULL,
      description VARCHAR(255) NOT NULL,
      available BOOLEAN NOT NULL,
      owner_id INTEGER NOT NULL,
      request_id INTEGER,
+     updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
      CONSTRAINT pk_item PRIMARY KEY (id),
      CONSTRAINT fk_user_id FOREIGN KEY(owner_id)
      REFERENCES users(id),
@@ -38,21 +53,25 @@ create TABLE IF NOT EXISTS items (
 );
 
 create TABLE IF NOT EXISTS bookings (
-     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     id BIGINT NOT NULL,
      start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
      end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
      item_id INTEGER NOT NULL,
      booker_id INTEGER NOT NULL,
+     owner_id INTEGER NOT NULL,
      status VARCHAR(255) NOT NULL,
+     updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
      CONSTRAINT pk_booking PRIMARY KEY (id),
      CONSTRAINT fk_booker_id FOREIGN KEY(booker_id)
      REFERENCES users(id),
+     CONSTRAINT fk_booking_owner_id FOREIGN KEY(owner_id)
+     REFERENCES users(id),
      CONSTRAINT fk_item_id FOREIGN KEY(item_id)
      REFERENCES items(id)
 );
 
 create TABLE IF NOT EXISTS comments (
-     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+     id BIGINT NOT NULL,
      text VARCHAR(255) NOT NULL,
      item_id INTEGER NOT NULL,
      author_id INTEGER NOT NULL,
@@ -62,4 +81,15 @@ create TABLE IF NOT EXISTS comments (
      REFERENCES users(id),
      CONSTRAINT fk_item_id_comments FOREIGN KEY(item_id)
      REFERENCES items(id)
-)
+);
+
+create INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+create INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC);
+create INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+create INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+create INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+create INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+create INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created_at DESC);
+create INDEX IF NOT EXISTS idx_requests_created ON requests (created_at DESC, id DESC);
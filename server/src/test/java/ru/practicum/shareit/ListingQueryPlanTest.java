@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.config.EntityCacheConfig;
+import ru.practicum.shareit.item.storage.CommentStorage;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.pageable.CustomPageable;
+import ru.practicum.shareit.request.storage.ItemRequestStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверяет по EXPLAIN, что SQL, который строят методы хранилищ, читает таблицы по индексам из schema.sql.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.ListingQueryPlanTest$RecordingStatementInspector")
+@Import(EntityCacheConfig.class)
+public class ListingQueryPlanTest {
+    private static final Sort BOOKINGS_SORT = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingStorage bookingStorage;
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private CommentStorage commentStorage;
+    @Autowired
+    private ItemRequestStorage itemRequestStorage;
+
+    @Test
+    void usersBookings_shouldUseIndex() {
+        assertUsesIndex(() -> bookingStorage.findByBooker_Id(1, page(40, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findByBooker_IdAndStartBeforeAndEndAfter(1, NOW, NOW,
+                page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findByBooker_IdAndEndBefore(1, NOW, page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findByBooker_IdAndStartAfter(1, NOW, page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findByBooker_IdAndStatus(1, BookingStatus.WAITING,
+                page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findUsersBookingsAfter(1, NOW, 5, page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findUsersPastBookingsAfter(1, NOW, 5, NOW, page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findUsersBookingsByStatusAfter(1, NOW, 5, BookingStatus.WAITING,
+                page(0, BOOKINGS_SORT)));
+    }
+
+    @Test
+    void ownersBookings_shouldUseIndex() {
+        assertUsesIndex(() -> bookingStorage.findByOwnerId(1, page(40, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findByOwnerIdAndEndBefore(1, NOW, page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findByOwnerIdAndStatus(1, BookingStatus.WAITING,
+                page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findOwnersBookingsAfter(1, NOW, 5, page(0, BOOKINGS_SORT)));
+        assertUsesIndex(() -> bookingStorage.findOwnersBookingsByStatusAfter(1, NOW, 5, BookingStatus.WAITING,
+                page(0, BOOKINGS_SORT)));
+    }
+
+    @Test
+    void lastAndNextBookings_shouldUseIndex() {
+        assertUsesIndex(() -> bookingStorage.findLastBookings(List.of(1, 2), List.of(BookingStatus.REJECTED), NOW));
+        assertUsesIndex(() -> bookingStorage.findNextBookings(List.of(1, 2), List.of(BookingStatus.REJECTED), NOW));
+    }
+
+    @Test
+    void ownersItems_shouldUseIndex() {
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        assertUsesIndex(() -> itemStorage.findByOwnerId(1, page(40, sort)));
+        assertUsesIndex(() -> itemStorage.findByOwnerIdAfter(1, 3, page(0, sort)));
+        assertUsesIndex(() -> itemStorage.findByRequestIdIn(List.of(1, 2)));
+        assertUsesIndex(() -> commentStorage.findByItem_IdIn(List.of(1, 2)));
+    }
+
+    @Test
+    void itemRequests_shouldUseIndex() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id"));
+        assertUsesIndex(() -> itemRequestStorage.findByRequestorIdOrderByCreatedDesc(1));
+        assertUsesIndex(() -> itemRequestStorage.findByRequestorIdNot(1, page(40, sort)));
+        assertUsesIndex(() -> itemRequestStorage.findByRequestorIdNotAfter(1, NOW, 3, page(0, sort)));
+    }
+
+    private void assertUsesIndex(Runnable query) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertEquals(1, statements.size(), () -> "Expected one statement, got: " + statements);
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + statements.get(0), String.class));
+        assertFalse(plan.contains("tableScan"), () -> "Query falls back to a table scan:\n" + plan);
+    }
+
+    private static Pageable page(int from, Sort sort) {
+        return new CustomPageable(from, 20, sort);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
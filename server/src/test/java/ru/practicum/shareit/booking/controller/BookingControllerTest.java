@@ -8,10 +8,12 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.exception.BookingByOwnerException;
@@ -19,6 +21,7 @@ import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.InvalidBookingOperationException;
 import ru.practicum.shareit.booking.exception.InvalidUserApprovesBookingException;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pageable.PageCursor;
 import utils.ResourcePool;
 
 import java.nio.charset.StandardCharsets;
@@ -61,6 +64,34 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @SneakyThrows
+    @Test
+    void createBookings_shouldReturnResults() {
+        List<ShortBookingDto> shortBookingDtos = List.of(
+                ShortBookingDto.builder().itemId(1).start(LocalDateTime.of(2024, 2, 1, 0, 0))
+                        .end(LocalDateTime.of(2024, 2, 12, 0, 0)).build(),
+                ShortBookingDto.builder().itemId(2).start(LocalDateTime.of(2024, 2, 1, 0, 0))
+                        .end(LocalDateTime.of(2024, 2, 12, 0, 0)).build());
+        BookingDto bookingDto = ResourcePool.read(bookingController_createBooking_bookingDto, BookingDto.class);
+        List<BatchBookingResultDto> results = List.of(BatchBookingResultDto.builder().booking(bookingDto).build(),
+                BatchBookingResultDto.builder().error("Item with id 2 was not found").build());
+        when(bookingService.createBookings(eq(1), any())).thenReturn(results);
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.post("/bookings/batch")
+                                .content(objectMapper.writeValueAsString(shortBookingDtos))
+                                .header("X-Sharer-User-Id", 1)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(results)));
+
+        verify(bookingService, Mockito.times(1)).createBookings(eq(1),
+                argThat(bookingDtos -> bookingDtos.size() == 2 && bookingDtos.get(1).getItemId() == 2));
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @SneakyThrows
     @Test
     void createBooking_shouldThrowExceptionWhenBookedByOwner() {
@@ -186,6 +217,7 @@ public class BookingControllerTest {
                 .andExpect(
                         MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(bookings)));
 
+        verify(bookingService, Mockito.times(1)).getUsersBookingsETag(1);
         verify(bookingService, Mockito.times(1)).getUsersBookings(1, "ALL", 0, 20);
         verifyNoMoreInteractions(bookingService);
     }
@@ -206,7 +238,86 @@ public class BookingControllerTest {
                 .andExpect(
                         MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(bookings)));
 
+        verify(bookingService, Mockito.times(1)).getOwnersBookingsETag(2);
         verify(bookingService, Mockito.times(1)).getOwnersBookings(2, "ALL", 0, 20);
         verifyNoMoreInteractions(bookingService);
     }
+
+    @SneakyThrows
+    @Test
+    void getUsersBookings_shouldSeekPastCursorAndReturnNextCursor() {
+        List<BookingDto> bookings = ResourcePool.read(bookingController_getUsersBookings_bookingDto,
+                new TypeReference<>() {
+                });
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2024, 2, 1, 0, 0), 5);
+        BookingDto last = bookings.get(bookings.size() - 1);
+        when(bookingService.getUsersBookingsAfter(1, "ALL", cursor, bookings.size())).thenReturn(bookings);
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/bookings")
+                                .param("state", "ALL")
+                                .param("cursor", cursor.encode())
+                                .param("size", String.valueOf(bookings.size()))
+                                .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PageCursor.NEXT_CURSOR_HEADER,
+                        PageCursor.of(last.getStart(), last.getId()).encode()))
+                .andExpect(
+                        MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(bookings)));
+
+        verify(bookingService, Mockito.times(1)).getUsersBookingsETag(1);
+        verify(bookingService, Mockito.times(1)).getUsersBookingsAfter(1, "ALL", cursor, bookings.size());
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void getUsersBookings_shouldReturnNotModifiedWhenETagMatches() {
+        when(bookingService.getUsersBookingsETag(1)).thenReturn("\"abc\"");
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/bookings?state=ALL&from=0&size=20")
+                                .header("X-Sharer-User-Id", 1)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        verify(bookingService, Mockito.times(1)).getUsersBookingsETag(1);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnersBookings_shouldReturnETagWhenItDoesNotMatch() {
+        List<BookingDto> bookings = ResourcePool.read(bookingController_getUsersBookings_bookingDto,
+                new TypeReference<>() {
+                });
+        when(bookingService.getOwnersBookingsETag(2)).thenReturn("\"new\"");
+        when(bookingService.getOwnersBookings(2, "ALL", 0, 20)).thenReturn(bookings);
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/bookings/owner?state=ALL&from=0&size=20")
+                                .header("X-Sharer-User-Id", 2)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"old\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"new\""))
+                .andExpect(
+                        MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(bookings)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnersBookings_shouldReturnBadRequestWhenCursorIsInvalid() {
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/bookings/owner?state=ALL&cursor=broken&size=20")
+                                .header("X-Sharer-User-Id", 2))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
 }
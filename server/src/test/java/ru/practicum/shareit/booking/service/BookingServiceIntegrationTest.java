@@ -2,30 +2,40 @@ package ru.practicum.shareit.booking.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.user.model.UserEntity;
 import utils.ResourcePool;
+import utils.StatementCounter;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static utils.ResourcePool.*;
 
 @Transactional
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = StatementCounter.STATISTICS_ENABLED)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingServiceIntegrationTest {
     private final BookingService bookingService;
@@ -58,15 +68,16 @@ public class BookingServiceIntegrationTest {
 
         Assertions.assertThat(expectedBookingEntity)
                 .usingRecursiveComparison()
-                .ignoringFields("id", "item", "booker")
+                .ignoringFields("id", "item", "ownerId", "booker", "updated")
                 .isEqualTo(bookingEntityFromDb);
+        assertEquals(ownerId, bookingEntityFromDb.getOwnerId());
         Assertions.assertThat(expectedBookingEntity.getItem())
                 .usingRecursiveComparison()
-                .ignoringFields("id", "ownerId")
+                .ignoringFields("id", "ownerId", "updated")
                 .isEqualTo(bookingEntityFromDb.getItem());
         Assertions.assertThat(expectedBookingEntity.getBooker())
                 .usingRecursiveComparison()
-                .ignoringFields("id")
+                .ignoringFields("id", "updated")
                 .isEqualTo(bookingEntityFromDb.getBooker());
         assertNotNull(bookingEntityFromDb.getId());
         assertNotNull(bookingEntityFromDb.getItem().getId());
@@ -74,6 +85,91 @@ public class BookingServiceIntegrationTest {
         assertNotNull(bookingEntityFromDb.getBooker().getId());
     }
 
+    @Test
+    void createBooking_shouldRejectOverlappingBooking() {
+        UserEntity owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
+        UserEntity booker = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        ItemEntity item = ItemEntity.builder().name("Item 1").description("Item 1 description")
+                .available(true).ownerId(owner.getId()).build();
+        em.persist(item);
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingService.createBooking(ShortBookingDto.builder().bookerId(booker.getId()).itemId(item.getId())
+                .start(start).end(start.plusDays(2)).build());
+
+        ShortBookingDto overlappingBookingDto = ShortBookingDto.builder().bookerId(booker.getId())
+                .itemId(item.getId()).start(start.plusDays(1)).end(start.plusDays(3)).build();
+        BookingOverlapException exception = assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(overlappingBookingDto));
+        BookingDto adjacentBookingDto = bookingService.createBooking(ShortBookingDto.builder()
+                .bookerId(booker.getId()).itemId(item.getId()).start(start.plusDays(2)).end(start.plusDays(3))
+                .build());
+
+        assertEquals(String.format("Item with id %d is already booked from %s to %s", item.getId(), start,
+                start.plusDays(2)), exception.getMessage());
+        assertNotNull(adjacentBookingDto.getId());
+        assertEquals(2L, em.createQuery("select count(b) from BookingEntity b where b.item.id = :itemId",
+                Long.class).setParameter("itemId", item.getId()).getSingleResult());
+    }
+
+    @Test
+    void createBookings_shouldCreateValidBookingsOfBatch() {
+        UserEntity owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
+        UserEntity booker = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        ItemEntity item1 = ItemEntity.builder().name("Item 1").description("Item 1 description")
+                .available(true).ownerId(owner.getId()).build();
+        ItemEntity item2 = ItemEntity.builder().name("Item 2").description("Item 2 description")
+                .available(true).ownerId(owner.getId()).build();
+        em.persist(item1);
+        em.persist(item2);
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<ShortBookingDto> bookingDtos = List.of(
+                ShortBookingDto.builder().itemId(item1.getId()).start(start).end(start.plusDays(2)).build(),
+                ShortBookingDto.builder().itemId(item2.getId()).start(start).end(start.plusDays(2)).build(),
+                ShortBookingDto.builder().itemId(item1.getId()).start(start.plusDays(1)).end(start.plusDays(3))
+                        .build());
+
+        List<BatchBookingResultDto> results = bookingService.createBookings(booker.getId(), bookingDtos);
+
+        assertEquals(item1.getId(), results.get(0).getBooking().getItem().getId());
+        assertEquals(item2.getId(), results.get(1).getBooking().getItem().getId());
+        assertEquals(String.format("Item with id %d is already booked from %s to %s", item1.getId(), start,
+                start.plusDays(2)), results.get(2).getError());
+        assertEquals(2L, em.createQuery("select count(b) from BookingEntity b where b.booker.id = :bookerId",
+                Long.class).setParameter("bookerId", booker.getId()).getSingleResult());
+    }
+
+    @Test
+    void createBookings_shouldInsertBookingsInOneJdbcBatch() {
+        UserEntity owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
+        UserEntity booker = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        List<ShortBookingDto> bookingDtos = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 20; i++) {
+            ItemEntity item = ItemEntity.builder().name("Item " + i).description("Item description")
+                    .available(true).ownerId(owner.getId()).build();
+            em.persist(item);
+            bookingDtos.add(ShortBookingDto.builder().itemId(item.getId()).start(start).end(start.plusDays(1))
+                    .build());
+        }
+        em.flush();
+        StatementCounter statements = StatementCounter.start(em.getEntityManagerFactory());
+
+        List<BatchBookingResultDto> results = bookingService.createBookings(booker.getId(), bookingDtos);
+
+        assertEquals(20, results.stream().filter(result -> result.getBooking() != null).count());
+        assertEquals(20, statements.getStatistics().getEntityInsertCount());
+        // Выборка вещей, не больше одного обращения к последовательности на все 20 id и одна пакетная вставка
+        statements.assertStatementsAtMost(3);
+    }
+
     @Test
     void getUsersBookings_shouldReturnAllBookings() {
         UserEntity owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
@@ -87,11 +183,11 @@ public class BookingServiceIntegrationTest {
         em.persist(item);
         em.flush();
 
-        BookingEntity bookingEntity1 = BookingEntity.builder().item(item).booker(booker)
+        BookingEntity bookingEntity1 = BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
                 .start(LocalDateTime.of(2024, 2, 1, 0, 0))
                 .end(LocalDateTime.of(2024, 2, 11, 0, 0))
                 .status(BookingStatus.WAITING).build();
-        BookingEntity bookingEntity2 = BookingEntity.builder().item(item).booker(booker)
+        BookingEntity bookingEntity2 = BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
                 .start(LocalDateTime.of(2024, 3, 1, 0, 0))
                 .end(LocalDateTime.of(2024, 3, 11, 0, 0))
                 .status(BookingStatus.WAITING).build();
@@ -139,11 +235,11 @@ public class BookingServiceIntegrationTest {
         em.persist(item);
         em.flush();
 
-        BookingEntity bookingEntity1 = BookingEntity.builder().item(item).booker(booker)
+        BookingEntity bookingEntity1 = BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
                 .start(LocalDateTime.of(2024, 2, 1, 0, 0))
                 .end(LocalDateTime.of(2024, 2, 11, 0, 0))
                 .status(BookingStatus.WAITING).build();
-        BookingEntity bookingEntity2 = BookingEntity.builder().item(item).booker(booker)
+        BookingEntity bookingEntity2 = BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
                 .start(LocalDateTime.of(2024, 3, 1, 0, 0))
                 .end(LocalDateTime.of(2024, 3, 11, 0, 0))
                 .status(BookingStatus.WAITING).build();
@@ -191,7 +287,7 @@ public class BookingServiceIntegrationTest {
         em.persist(item);
         em.flush();
 
-        BookingEntity booking = BookingEntity.builder().item(item).booker(booker)
+        BookingEntity booking = BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
                 .start(LocalDateTime.of(2024, 2, 1, 0, 0))
                 .end(LocalDateTime.of(2024, 2, 11, 0, 0))
                 .status(BookingStatus.WAITING).build();
@@ -231,7 +327,7 @@ public class BookingServiceIntegrationTest {
         em.persist(item);
         em.flush();
 
-        BookingEntity booking = BookingEntity.builder().item(item).booker(booker)
+        BookingEntity booking = BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
                 .start(LocalDateTime.of(2024, 2, 1, 0, 0))
                 .end(LocalDateTime.of(2024, 2, 11, 0, 0))
                 .status(BookingStatus.WAITING).build();
@@ -247,4 +343,105 @@ public class BookingServiceIntegrationTest {
 
         assertEquals(BookingStatus.APPROVED, bookingEntityFromDb.getStatus());
     }
+
+    @Test
+    void getUsersBookings_shouldLoadItemsAndBookersWithBookings() {
+        BookingUsers users = persistBookingsOfDifferentItems(5);
+        StatementCounter statements = StatementCounter.start(em.getEntityManagerFactory());
+
+        List<BookingDto> actualBookingDtos = bookingService.getUsersBookings(users.getBookerId(), "all", 0, 20);
+
+        assertEquals(5, actualBookingDtos.size());
+        actualBookingDtos.forEach(bookingDto -> assertEquals("User 2", bookingDto.getBooker().getName()));
+        statements.assertStatements(2);
+    }
+
+    @Test
+    void getOwnersBookings_shouldLoadItemsAndBookersWithBookings() {
+        BookingUsers users = persistBookingsOfDifferentItems(5);
+        StatementCounter statements = StatementCounter.start(em.getEntityManagerFactory());
+
+        List<BookingDto> actualBookingDtos = bookingService.getOwnersBookings(users.getOwnerId(), "all", 0, 20);
+
+        assertEquals(5, actualBookingDtos.size());
+        actualBookingDtos.forEach(bookingDto -> assertNotNull(bookingDto.getItem().getName()));
+        statements.assertStatements(2);
+    }
+
+    @Test
+    void getUsersBookingsAfter_shouldWalkSamePagesAsOffsetPagination() {
+        BookingUsers users = persistBookingsOfDifferentItems(7);
+
+        List<BookingDto> expectedBookingDtos = bookingService.getUsersBookings(users.getBookerId(), "all", 0, 20);
+        List<BookingDto> actualBookingDtos = new ArrayList<>();
+        List<BookingDto> page = bookingService.getUsersBookings(users.getBookerId(), "all", 0, 2);
+        while (!page.isEmpty()) {
+            actualBookingDtos.addAll(page);
+            BookingDto last = page.get(page.size() - 1);
+            page = bookingService.getUsersBookingsAfter(users.getBookerId(), "all",
+                    PageCursor.of(last.getStart(), last.getId()), 2);
+        }
+
+        assertEquals(7, actualBookingDtos.size());
+        assertEquals(expectedBookingDtos.stream().map(BookingDto::getId).collect(Collectors.toList()),
+                actualBookingDtos.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void getOwnersBookingsAfter_shouldReturnBookingsAfterCursor() {
+        BookingUsers users = persistBookingsOfDifferentItems(7);
+        List<BookingDto> allBookingDtos = bookingService.getOwnersBookings(users.getOwnerId(), "all", 0, 20);
+        BookingDto cursorBooking = allBookingDtos.get(2);
+        em.clear();
+        StatementCounter statements = StatementCounter.start(em.getEntityManagerFactory());
+
+        List<BookingDto> actualBookingDtos = bookingService.getOwnersBookingsAfter(users.getOwnerId(), "all",
+                PageCursor.of(cursorBooking.getStart(), cursorBooking.getId()), 3);
+
+        assertEquals(allBookingDtos.subList(3, 6).stream().map(BookingDto::getId).collect(Collectors.toList()),
+                actualBookingDtos.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        statements.assertStatements(2);
+    }
+
+    @Test
+    void getBookingsETag_shouldChangeOnlyAfterBookingIsUpdated() {
+        BookingUsers users = persistBookingsOfDifferentItems(3);
+        String usersETag = bookingService.getUsersBookingsETag(users.getBookerId());
+        String ownersETag = bookingService.getOwnersBookingsETag(users.getOwnerId());
+        BookingDto booking = bookingService.getOwnersBookings(users.getOwnerId(), "all", 0, 1).get(0);
+
+        assertEquals(usersETag, bookingService.getUsersBookingsETag(users.getBookerId()));
+        assertEquals(ownersETag, bookingService.getOwnersBookingsETag(users.getOwnerId()));
+        assertNotEquals(usersETag, ownersETag);
+
+        bookingService.approveBooking(users.getOwnerId(), booking.getId(), true);
+
+        assertNotEquals(usersETag, bookingService.getUsersBookingsETag(users.getBookerId()));
+        assertNotEquals(ownersETag, bookingService.getOwnersBookingsETag(users.getOwnerId()));
+    }
+
+    private BookingUsers persistBookingsOfDifferentItems(int count) {
+        UserEntity owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
+        UserEntity booker = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        for (int i = 0; i < count; i++) {
+            ItemEntity item = ItemEntity.builder().name("Item " + i).description("Item " + i + " description")
+                    .available(true).ownerId(owner.getId()).build();
+            em.persist(item);
+            em.persist(BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker)
+                    .start(LocalDateTime.of(2024, 2, 1, 0, 0).plusDays(i / 2))
+                    .end(LocalDateTime.of(2024, 2, 11, 0, 0).plusDays(i))
+                    .status(BookingStatus.WAITING).build());
+        }
+        em.flush();
+        em.clear();
+        return new BookingUsers(owner.getId(), booker.getId());
+    }
+
+    @Value
+    private static class BookingUsers {
+        int ownerId;
+        int bookerId;
+    }
 }
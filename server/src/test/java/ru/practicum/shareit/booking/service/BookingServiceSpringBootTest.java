@@ -5,17 +5,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BatchBookingResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.exception.BookingByOwnerException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidBookingOperationException;
 import ru.practicum.shareit.booking.exception.InvalidUserApprovesBookingException;
 import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
 import ru.practicum.shareit.booking.mapper.ShortBookingMapper;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookedPeriods;
 import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
@@ -24,30 +32,46 @@ import ru.practicum.shareit.item.storage.ItemStorage;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapperImpl;
 import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 import utils.ResourcePool;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static utils.ResourcePool.*;
 
 @SpringBootTest(classes = {BookingServiceImpl.class, BookingMapperImpl.class, ShortBookingMapper.class,
-        ItemMapperImpl.class, UserMapperImpl.class})
+        ItemMapperImpl.class, UserMapperImpl.class, BookingServiceSpringBootTest.TransactionConfig.class})
 public class BookingServiceSpringBootTest {
     @Autowired
     private BookingServiceImpl bookingService;
     @MockBean
     private BookingStorage bookingStorage;
     @MockBean
+    private BookedPeriods bookedPeriods;
+    @MockBean
     private UserStorage userStorage;
     @MockBean
+    private KnownUserIds knownUserIds;
+    @MockBean
     private ItemStorage itemStorage;
 
+    @TestConfiguration
+    static class TransactionConfig {
+        @Bean
+        TransactionTemplate transactionTemplate() {
+            return new TransactionTemplate(mock(PlatformTransactionManager.class));
+        }
+    }
+
     @Test
     void createBooking_shouldThrowExceptionWhenUserNotFound() {
         ShortBookingDto shortBookingDto = ShortBookingDto.builder().bookerId(1).itemId(1)
@@ -133,6 +157,32 @@ public class BookingServiceSpringBootTest {
         verifyNoInteractions(bookingStorage);
     }
 
+    @Test
+    void createBooking_shouldThrowExceptionWhenPeriodIsAlreadyBooked() {
+        ShortBookingDto shortBookingDto = ShortBookingDto.builder().bookerId(1).itemId(1)
+                .start(LocalDateTime.of(2024, 2, 11, 10, 0))
+                .end(LocalDateTime.of(2024, 2, 13, 0, 0)).build();
+
+        UserEntity booker = UserEntity.builder().id(1).name("User 1").email("user1@yandex.ru").build();
+        ItemEntity item = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
+                .available(true).ownerId(2).build();
+
+        when(userStorage.findById(1)).thenReturn(Optional.of(booker));
+        when(itemStorage.findById(1)).thenReturn(Optional.of(item));
+        doThrow(new BookingOverlapException("Item with id 1 is already booked from 2024-02-12T00:00 to " +
+                "2024-02-14T00:00")).when(bookedPeriods).reserve(1, shortBookingDto.getStart(),
+                shortBookingDto.getEnd());
+
+        BookingOverlapException exception = assertThrows(BookingOverlapException.class,
+                () -> bookingService.createBooking(shortBookingDto));
+
+        assertEquals("Item with id 1 is already booked from 2024-02-12T00:00 to 2024-02-14T00:00",
+                exception.getMessage());
+        verify(bookedPeriods, Mockito.times(1)).reserve(1, shortBookingDto.getStart(),
+                shortBookingDto.getEnd());
+        verifyNoInteractions(bookingStorage);
+    }
+
     @Test
     void createBooking_shouldCreateBooking() {
         ShortBookingDto shortBookingDto = ShortBookingDto.builder().bookerId(1).itemId(1)
@@ -145,7 +195,7 @@ public class BookingServiceSpringBootTest {
 
         when(userStorage.findById(1)).thenReturn(Optional.of(booker));
         when(itemStorage.findById(1)).thenReturn(Optional.of(item));
-        when(bookingStorage.save(any()))
+        when(bookingStorage.saveAndFlush(any()))
                 .thenAnswer(invocationOnMock -> {
                     BookingEntity bookingEntity = invocationOnMock.getArgument(0, BookingEntity.class);
                     bookingEntity.setId(1);
@@ -158,26 +208,144 @@ public class BookingServiceSpringBootTest {
         assertEquals(expectedBookingDto, actualBookingDto);
         verify(userStorage, Mockito.times(1)).findById(1);
         verify(itemStorage, Mockito.times(1)).findById(1);
-        verify(bookingStorage, Mockito.times(1)).save(any());
+        verify(bookingStorage, Mockito.times(1)).saveAndFlush(any());
+        verify(bookedPeriods, Mockito.times(1)).reserve(1, shortBookingDto.getStart(),
+                shortBookingDto.getEnd());
+        verifyNoMoreInteractions(userStorage, itemStorage, bookingStorage, bookedPeriods);
+    }
+
+    @Test
+    void createBookings_shouldReturnResultForEveryBooking() {
+        LocalDateTime start = LocalDateTime.of(2030, 2, 11, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 2, 13, 0, 0);
+        UserEntity booker = UserEntity.builder().id(1).name("User 1").email("user1@yandex.ru").build();
+        ItemEntity item = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
+                .available(true).ownerId(2).build();
+        ItemEntity ownItem = ItemEntity.builder().id(2).name("Item 2").description("Item 2 description")
+                .available(true).ownerId(1).build();
+        ItemEntity unavailableItem = ItemEntity.builder().id(3).name("Item 3").description("Item 3 description")
+                .available(false).ownerId(2).build();
+        List<ShortBookingDto> bookingDtos = List.of(
+                ShortBookingDto.builder().itemId(1).start(start).end(end).build(),
+                ShortBookingDto.builder().itemId(2).start(start).end(end).build(),
+                ShortBookingDto.builder().itemId(3).start(start).end(end).build(),
+                ShortBookingDto.builder().itemId(4).start(start).end(end).build(),
+                ShortBookingDto.builder().itemId(1).start(start.plusDays(1)).end(end.plusDays(1)).build());
+
+        when(userStorage.findById(1)).thenReturn(Optional.of(booker));
+        when(itemStorage.findAllById(Set.of(1, 2, 3, 4))).thenReturn(List.of(item, ownItem, unavailableItem));
+        doThrow(new BookingOverlapException("Item with id 1 is already booked from 2030-02-11T10:00 to " +
+                "2030-02-13T00:00")).when(bookedPeriods).reserve(1, start.plusDays(1), end.plusDays(1));
+        when(bookingStorage.saveAll(any())).thenAnswer(invocationOnMock -> {
+            List<BookingEntity> bookingEntities = invocationOnMock.getArgument(0);
+            bookingEntities.get(0).setId(1);
+            return bookingEntities;
+        });
+
+        List<BatchBookingResultDto> results = bookingService.createBookings(1, bookingDtos);
+
+        assertEquals(5, results.size());
+        assertEquals(1, results.get(0).getBooking().getId());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals("Trying to book item with id: 2 by the owner with id: 1", results.get(1).getError());
+        assertEquals("Trying to book item with id: 3. Item is unavailable", results.get(2).getError());
+        assertEquals("Item with id 4 was not found", results.get(3).getError());
+        assertEquals("Item with id 1 is already booked from 2030-02-11T10:00 to 2030-02-13T00:00",
+                results.get(4).getError());
+        assertNull(results.get(4).getBooking());
+        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(itemStorage, Mockito.times(1)).findAllById(Set.of(1, 2, 3, 4));
+        verify(bookingStorage, Mockito.times(1)).saveAll(argThat(bookings -> ((List<BookingEntity>) bookings).size() == 1));
+        verify(bookingStorage, Mockito.times(1)).flush();
         verifyNoMoreInteractions(userStorage, itemStorage, bookingStorage);
     }
 
     @Test
-    void getUsersBookings_shouldThrowExceptionWhenUserNotFound() {
+    void createBookings_shouldCreateBookingsOneByOneWhenDatabaseRejectsOverlap() {
+        LocalDateTime start = LocalDateTime.of(2030, 2, 11, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 2, 13, 0, 0);
+        UserEntity booker = UserEntity.builder().id(1).name("User 1").email("user1@yandex.ru").build();
+        ItemEntity item1 = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
+                .available(true).ownerId(2).build();
+        ItemEntity item2 = ItemEntity.builder().id(2).name("Item 2").description("Item 2 description")
+                .available(true).ownerId(2).build();
+        List<ShortBookingDto> bookingDtos = List.of(
+                ShortBookingDto.builder().itemId(1).start(start).end(end).build(),
+                ShortBookingDto.builder().itemId(2).start(start).end(end).build(),
+                ShortBookingDto.builder().itemId(4).start(start).end(end).build());
+        DataIntegrityViolationException overlap = new DataIntegrityViolationException("could not execute batch",
+                new SQLException("ERROR: conflicting key value violates exclusion constraint " +
+                        "\"ex_bookings_item_period\""));
+
+        when(userStorage.findById(1)).thenReturn(Optional.of(booker));
+        when(itemStorage.findAllById(Set.of(1, 2, 4))).thenReturn(List.of(item1, item2));
+        when(itemStorage.findById(1)).thenReturn(Optional.of(item1));
+        when(itemStorage.findById(2)).thenReturn(Optional.of(item2));
+        when(itemStorage.findById(4)).thenReturn(Optional.empty());
+        doThrow(overlap).when(bookingStorage).flush();
+        when(bookingStorage.saveAndFlush(any())).thenAnswer(invocationOnMock -> {
+            BookingEntity bookingEntity = invocationOnMock.getArgument(0);
+            if (bookingEntity.getItem().getId() == 2) {
+                throw overlap;
+            }
+            bookingEntity.setId(10);
+            return bookingEntity;
+        });
+
+        List<BatchBookingResultDto> results = bookingService.createBookings(1, bookingDtos);
+
+        assertEquals(3, results.size());
+        assertEquals(10, results.get(0).getBooking().getId());
+        assertEquals(1, results.get(0).getBooking().getItem().getId());
+        assertEquals("Item with id 2 is already booked for the period from 2030-02-11T10:00 to 2030-02-13T00:00",
+                results.get(1).getError());
+        assertNull(results.get(1).getBooking());
+        assertEquals("Item with id 4 was not found", results.get(2).getError());
+        verify(bookingStorage, Mockito.times(1)).saveAll(any());
+        verify(bookingStorage, Mockito.times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void createBookings_shouldThrowExceptionWhenDatabaseRejectsBatchForOtherReason() {
+        UserEntity booker = UserEntity.builder().id(1).name("User 1").email("user1@yandex.ru").build();
+
+        when(userStorage.findById(1)).thenReturn(Optional.of(booker));
+        doThrow(new DataIntegrityViolationException("could not execute batch",
+                new SQLException("ERROR: null value in column \"item_id\""))).when(bookingStorage).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBookings(1,
+                List.of(ShortBookingDto.builder().itemId(1).build())));
+        verify(bookingStorage, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBookings_shouldThrowExceptionWhenUserNotFound() {
         when(userStorage.findById(1)).thenReturn(Optional.empty());
 
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class,
+                () -> bookingService.createBookings(1, List.of(ShortBookingDto.builder().itemId(1).build())));
+
+        assertEquals("User with id 1 was not found", exception.getMessage());
+        verifyNoInteractions(itemStorage, bookingStorage, bookedPeriods);
+    }
+
+    @Test
+    void getUsersBookings_shouldThrowExceptionWhenUserNotFound() {
+        when(knownUserIds.exists(1)).thenReturn(false);
+
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> bookingService.getUsersBookings(1, "waiting", 0, 20));
 
         assertEquals("User with id 1 was not found",
                 exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verifyNoInteractions(bookingStorage);
     }
 
     @Test
     void getUsersBookings_shouldReturnAllBookings() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_all, new TypeReference<>() {
                 });
@@ -189,14 +357,14 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1)).findByBooker_Id(eq(1), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getUsersBookings_shouldReturnCurrentBookings() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_current, new TypeReference<>() {
                 });
@@ -209,7 +377,7 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1))
                 .findByBooker_IdAndStartBeforeAndEndAfter(eq(1), any(), any(), any());
         verifyNoMoreInteractions(bookingStorage);
@@ -217,7 +385,7 @@ public class BookingServiceSpringBootTest {
 
     @Test
     void getUsersBookings_shouldReturnPastBookings() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_past, new TypeReference<>() {
                 });
@@ -230,7 +398,7 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1))
                 .findByBooker_IdAndEndBefore(eq(1), any(), any());
         verifyNoMoreInteractions(bookingStorage);
@@ -238,7 +406,7 @@ public class BookingServiceSpringBootTest {
 
     @Test
     void getUsersBookings_shouldReturnFutureBookings() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_future, new TypeReference<>() {
                 });
@@ -251,7 +419,7 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1))
                 .findByBooker_IdAndStartAfter(eq(1), any(), any());
         verifyNoMoreInteractions(bookingStorage);
@@ -259,7 +427,7 @@ public class BookingServiceSpringBootTest {
 
     @Test
     void getUsersBookings_shouldReturnWaitingBookings() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_future, new TypeReference<>() {
                 });
@@ -272,7 +440,7 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1))
                 .findByBooker_IdAndStatus(eq(1), eq(BookingStatus.WAITING), any());
         verifyNoMoreInteractions(bookingStorage);
@@ -280,7 +448,7 @@ public class BookingServiceSpringBootTest {
 
     @Test
     void getUsersBookings_shouldReturnRejectedBookings() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_rejected, new TypeReference<>() {
                 });
@@ -293,7 +461,7 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1))
                 .findByBooker_IdAndStatus(eq(1), eq(BookingStatus.REJECTED), any());
         verifyNoMoreInteractions(bookingStorage);
@@ -301,24 +469,24 @@ public class BookingServiceSpringBootTest {
 
     @Test
     void getOwnersBookings_shouldThrowExceptionWhenUserNotFound() {
-        when(userStorage.findById(2)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(2)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> bookingService.getOwnersBookings(2, "waiting", 0, 20));
 
         assertEquals("User with id 2 was not found",
                 exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(2);
+        verify(knownUserIds, Mockito.times(1)).exists(2);
         verifyNoInteractions(bookingStorage);
     }
 
     @Test
     void getOwnersBookings_shouldReturnAllBookings() {
-        when(userStorage.findById(2)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(2)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_all, new TypeReference<>() {
                 });
-        when(bookingStorage.findByItem_OwnerId(eq(2), any())).thenReturn(bookingEntities);
+        when(bookingStorage.findByOwnerId(eq(2), any())).thenReturn(bookingEntities);
 
         List<BookingDto> actualBookingDto = bookingService.getOwnersBookings(2, "all", 0, 20);
         List<BookingDto> expectedBookingDto = ResourcePool
@@ -326,18 +494,18 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(2);
-        verify(bookingStorage, Mockito.times(1)).findByItem_OwnerId(eq(2), any());
+        verify(knownUserIds, Mockito.times(1)).exists(2);
+        verify(bookingStorage, Mockito.times(1)).findByOwnerId(eq(2), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getOwnersBookings_shouldReturnCurrentBookings() {
-        when(userStorage.findById(2)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(2)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_current, new TypeReference<>() {
                 });
-        when(bookingStorage.findByItem_OwnerIdAndStartBeforeAndEndAfter(eq(2), any(), any(), any()))
+        when(bookingStorage.findByOwnerIdAndStartBeforeAndEndAfter(eq(2), any(), any(), any()))
                 .thenReturn(bookingEntities);
 
         List<BookingDto> actualBookingDto = bookingService.getOwnersBookings(2, "current", 0, 20);
@@ -346,19 +514,19 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(2);
+        verify(knownUserIds, Mockito.times(1)).exists(2);
         verify(bookingStorage, Mockito.times(1))
-                .findByItem_OwnerIdAndStartBeforeAndEndAfter(eq(2), any(), any(), any());
+                .findByOwnerIdAndStartBeforeAndEndAfter(eq(2), any(), any(), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getOwnersBookings_shouldReturnPastBookings() {
-        when(userStorage.findById(2)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(2)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_past, new TypeReference<>() {
                 });
-        when(bookingStorage.findByItem_OwnerIdAndEndBefore(eq(2), any(), any()))
+        when(bookingStorage.findByOwnerIdAndEndBefore(eq(2), any(), any()))
                 .thenReturn(bookingEntities);
 
         List<BookingDto> actualBookingDto = bookingService.getOwnersBookings(2, "past", 0, 20);
@@ -367,19 +535,19 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(2);
+        verify(knownUserIds, Mockito.times(1)).exists(2);
         verify(bookingStorage, Mockito.times(1))
-                .findByItem_OwnerIdAndEndBefore(eq(2), any(), any());
+                .findByOwnerIdAndEndBefore(eq(2), any(), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getOwnersBookings_shouldReturnFutureBookings() {
-        when(userStorage.findById(2)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(2)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_future, new TypeReference<>() {
                 });
-        when(bookingStorage.findByItem_OwnerIdAndStartAfter(eq(2), any(), any()))
+        when(bookingStorage.findByOwnerIdAndStartAfter(eq(2), any(), any()))
                 .thenReturn(bookingEntities);
 
         List<BookingDto> actualBookingDto = bookingService.getOwnersBookings(2, "future", 0, 20);
@@ -388,19 +556,19 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(2);
+        verify(knownUserIds, Mockito.times(1)).exists(2);
         verify(bookingStorage, Mockito.times(1))
-                .findByItem_OwnerIdAndStartAfter(eq(2), any(), any());
+                .findByOwnerIdAndStartAfter(eq(2), any(), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getOwnersBookings_shouldReturnWaitingBookings() {
-        when(userStorage.findById(2)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(2)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_future, new TypeReference<>() {
                 });
-        when(bookingStorage.findByItem_OwnerIdAndStatus(eq(2), eq(BookingStatus.WAITING), any()))
+        when(bookingStorage.findByOwnerIdAndStatus(eq(2), eq(BookingStatus.WAITING), any()))
                 .thenReturn(bookingEntities);
 
         List<BookingDto> actualBookingDto = bookingService.getOwnersBookings(2, "waiting", 0, 20);
@@ -409,19 +577,19 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(2);
+        verify(knownUserIds, Mockito.times(1)).exists(2);
         verify(bookingStorage, Mockito.times(1))
-                .findByItem_OwnerIdAndStatus(eq(2), eq(BookingStatus.WAITING), any());
+                .findByOwnerIdAndStatus(eq(2), eq(BookingStatus.WAITING), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getOwnersBookings_shouldReturnRejectedBookings() {
-        when(userStorage.findById(2)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(2)).thenReturn(true);
         List<BookingEntity> bookingEntities = ResourcePool
                 .read(bookingService_sb_getUsersBookings_bookingEntity_rejected, new TypeReference<>() {
                 });
-        when(bookingStorage.findByItem_OwnerIdAndStatus(eq(2), eq(BookingStatus.REJECTED), any()))
+        when(bookingStorage.findByOwnerIdAndStatus(eq(2), eq(BookingStatus.REJECTED), any()))
                 .thenReturn(bookingEntities);
 
         List<BookingDto> actualBookingDto = bookingService.getOwnersBookings(2, "rejected", 0, 20);
@@ -430,28 +598,28 @@ public class BookingServiceSpringBootTest {
                 });
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(2);
+        verify(knownUserIds, Mockito.times(1)).exists(2);
         verify(bookingStorage, Mockito.times(1))
-                .findByItem_OwnerIdAndStatus(eq(2), eq(BookingStatus.REJECTED), any());
+                .findByOwnerIdAndStatus(eq(2), eq(BookingStatus.REJECTED), any());
         verifyNoMoreInteractions(bookingStorage);
     }
 
     @Test
     void getBooking_shouldThrowExceptionWhenUserNotFound() {
-        when(userStorage.findById(1)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(1)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> bookingService.getBooking(1, 1));
 
         assertEquals("User with id 1 was not found",
                 exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verifyNoInteractions(bookingStorage);
     }
 
     @Test
     void getBooking_shouldThrowExceptionWhenBookingNotFound() {
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         when(bookingStorage.findById(1)).thenReturn(Optional.empty());
 
         BookingNotFoundException exception = assertThrows(BookingNotFoundException.class,
@@ -459,14 +627,14 @@ public class BookingServiceSpringBootTest {
 
         assertEquals("Booking with id 1 was not found",
                 exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1)).findById(1);
     }
 
     @Test
     void getBooking_shouldThrowExceptionWhenBookingRequestedByNotOwnerAndNotBooker() {
         BookingEntity bookingEntity = ResourcePool.read(bookingService_sb_getBooking_bookingEntity, BookingEntity.class);
-        when(userStorage.findById(3)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(3)).thenReturn(true);
         when(bookingStorage.findById(1)).thenReturn(Optional.of(bookingEntity));
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
@@ -475,21 +643,21 @@ public class BookingServiceSpringBootTest {
         assertEquals("User with id: 3 is trying to get info " +
                 "about booking with id: 1. This user is not the owner and not the booker and can't get info " +
                 "about this booking", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(3);
+        verify(knownUserIds, Mockito.times(1)).exists(3);
         verify(bookingStorage, Mockito.times(1)).findById(1);
     }
 
     @Test
     void getBooking_shouldReturnBooking() {
         BookingEntity bookingEntity = ResourcePool.read(bookingService_sb_getBooking_bookingEntity, BookingEntity.class);
-        when(userStorage.findById(1)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(1)).thenReturn(true);
         when(bookingStorage.findById(1)).thenReturn(Optional.of(bookingEntity));
 
         BookingDto actualBookingDto = bookingService.getBooking(1, 1);
         BookingDto expectedBookingDto = ResourcePool.read(bookingService_sb_getBooking_bookingDto, BookingDto.class);
 
         assertEquals(expectedBookingDto, actualBookingDto);
-        verify(userStorage, Mockito.times(1)).findById(1);
+        verify(knownUserIds, Mockito.times(1)).exists(1);
         verify(bookingStorage, Mockito.times(1)).findById(1);
     }
 
@@ -551,6 +719,7 @@ public class BookingServiceSpringBootTest {
         verify(bookingStorage, Mockito.times(1)).findById(1);
         verify(bookingStorage, Mockito.times(1)).save(any());
         verifyNoMoreInteractions(bookingStorage);
+        verifyNoInteractions(bookedPeriods);
     }
 
     @Test
@@ -567,6 +736,8 @@ public class BookingServiceSpringBootTest {
         assertEquals(expectedBookingDto, actualBookingDto);
         verify(bookingStorage, Mockito.times(1)).findById(1);
         verify(bookingStorage, Mockito.times(1)).save(any());
-        verifyNoMoreInteractions(bookingStorage);
+        verify(bookedPeriods, Mockito.times(1)).release(bookingEntity.getItem().getId(),
+                bookingEntity.getStart(), bookingEntity.getEnd());
+        verifyNoMoreInteractions(bookingStorage, bookedPeriods);
     }
 }
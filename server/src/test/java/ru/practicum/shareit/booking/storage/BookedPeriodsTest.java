@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookedPeriodsTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    BookingStorage bookingStorage;
+    @InjectMocks
+    BookedPeriods bookedPeriods;
+
+    @Test
+    void reserve_shouldRejectPeriodOverlappingLoadedBooking() {
+        when(bookingStorage.findBookedPeriods(any(), any()))
+                .thenReturn(List.of(period(1, START, START.plusDays(2))));
+        bookedPeriods.rebuild();
+
+        BookingOverlapException exception = assertThrows(BookingOverlapException.class,
+                () -> bookedPeriods.reserve(1, START.minusDays(1), START.plusDays(1)));
+
+        assertEquals(String.format("Item with id 1 is already booked from %s to %s", START, START.plusDays(2)),
+                exception.getMessage());
+        assertThrows(BookingOverlapException.class,
+                () -> bookedPeriods.reserve(1, START.plusHours(1), START.plusHours(2)));
+        assertThrows(BookingOverlapException.class,
+                () -> bookedPeriods.reserve(1, START.minusDays(1), START.plusDays(3)));
+    }
+
+    @Test
+    void reserve_shouldAcceptAdjacentPeriodsAndOtherItems() {
+        bookedPeriods.reserve(1, START, START.plusDays(2));
+
+        assertDoesNotThrow(() -> bookedPeriods.reserve(1, START.minusDays(1), START));
+        assertDoesNotThrow(() -> bookedPeriods.reserve(1, START.plusDays(2), START.plusDays(3)));
+        assertDoesNotThrow(() -> bookedPeriods.reserve(2, START, START.plusDays(2)));
+        assertThrows(BookingOverlapException.class,
+                () -> bookedPeriods.reserve(1, START.minusHours(1), START.plusDays(2).plusHours(1)));
+    }
+
+    @Test
+    void release_shouldFreePeriod() {
+        bookedPeriods.reserve(1, START, START.plusDays(2));
+
+        bookedPeriods.release(1, START, START.plusDays(2));
+
+        assertDoesNotThrow(() -> bookedPeriods.reserve(1, START.plusDays(1), START.plusDays(3)));
+    }
+
+    @Test
+    void reserve_shouldIgnoreEndedPeriods() {
+        LocalDateTime now = LocalDateTime.now();
+        bookedPeriods.reserve(1, now.minusDays(2), now.minusDays(1));
+
+        assertDoesNotThrow(() -> bookedPeriods.reserve(1, now.minusDays(3), now.plusDays(1)));
+    }
+
+    @Test
+    void isFree_shouldCheckPeriodWithoutReservingIt() {
+        bookedPeriods.reserve(1, START, START.plusDays(2));
+
+        assertFalse(bookedPeriods.isFree(1, START.plusDays(1), START.plusDays(3)));
+        assertTrue(bookedPeriods.isFree(1, START.plusDays(2), START.plusDays(3)));
+        assertTrue(bookedPeriods.isFree(1, START.minusDays(1), START));
+        assertTrue(bookedPeriods.isFree(2, START, START.plusDays(2)));
+    }
+
+    @Test
+    void findFreePeriods_shouldReturnGapsBetweenBookedPeriods() {
+        bookedPeriods.reserve(1, START.minusHours(2), START.plusHours(2));
+        bookedPeriods.reserve(1, START.plusDays(1), START.plusDays(2));
+        bookedPeriods.reserve(1, START.plusDays(2), START.plusDays(3));
+        bookedPeriods.reserve(1, START.plusDays(9), START.plusDays(11));
+
+        NavigableMap<LocalDateTime, LocalDateTime> freePeriods = bookedPeriods.findFreePeriods(1, START,
+                START.plusDays(10));
+
+        assertEquals(Map.of(START.plusHours(2), START.plusDays(1), START.plusDays(3), START.plusDays(9)),
+                freePeriods);
+        assertEquals(Map.of(START, START.plusDays(10)), bookedPeriods.findFreePeriods(2, START,
+                START.plusDays(10)));
+        assertTrue(bookedPeriods.findFreePeriods(1, START.plusDays(1), START.plusDays(3)).isEmpty());
+    }
+
+    private static BookedPeriod period(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookedPeriod() {
+            @Override
+            public Integer getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserStorage;
+import utils.StatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Без общей транзакции: запись кэша видна только транзакциям, начатым после её загрузки.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = StatementCounter.STATISTICS_ENABLED)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheConfigTest {
+    private final UserService userService;
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private UserEntity user;
+    private ItemEntity item;
+
+    @BeforeEach
+    void beforeEach() {
+        user = userStorage.save(UserEntity.builder().name("Cached user").email("cached@yandex.ru").build());
+        item = itemStorage.save(ItemEntity.builder().name("Cached item").description("Cached item description")
+                .available(true).ownerId(user.getId()).build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void findById_shouldReadUsersAndItemsFromCache() {
+        userStorage.findById(user.getId());
+        itemStorage.findById(item.getId());
+        StatementCounter statements = StatementCounter.start(entityManagerFactory);
+
+        assertTrue(userStorage.findById(user.getId()).isPresent());
+        assertTrue(itemStorage.findById(item.getId()).isPresent());
+
+        statements.assertStatements(0);
+        assertEquals(2, statements.getStatistics().getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void updateUser_shouldNotLeaveStaleUserInCache() {
+        userStorage.findById(user.getId());
+
+        userService.updateUser(UserDto.builder().id(user.getId()).name("Cached user updated").build());
+
+        assertEquals("Cached user updated", userStorage.findById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deleteUser_shouldRemoveUserFromCache() {
+        UserEntity otherUser = userStorage.save(UserEntity.builder().name("Other user").email("other@yandex.ru")
+                .build());
+        userStorage.findById(otherUser.getId());
+
+        userService.deleteUser(otherUser.getId());
+
+        assertFalse(userStorage.findById(otherUser.getId()).isPresent());
+    }
+}
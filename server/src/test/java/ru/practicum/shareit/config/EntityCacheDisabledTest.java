@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.UserStorage;
+import utils.StatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {StatementCounter.STATISTICS_ENABLED, "shareit.entity-cache.enabled=false"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class EntityCacheDisabledTest {
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void afterEach() {
+        itemStorage.deleteAll();
+        userStorage.deleteAll();
+    }
+
+    @Test
+    void findById_shouldNotUseSecondLevelCache() {
+        StatementCounter statements = StatementCounter.start(entityManagerFactory);
+        UserEntity user = userStorage.save(UserEntity.builder().name("Uncached user").email("uncached@yandex.ru")
+                .build());
+        ItemEntity item = itemStorage.save(ItemEntity.builder().name("Uncached item")
+                .description("Uncached item description").available(true).ownerId(user.getId()).build());
+
+        assertTrue(userStorage.findById(user.getId()).isPresent());
+        assertTrue(itemStorage.findById(item.getId()).isPresent());
+        assertTrue(userStorage.findById(user.getId()).isPresent());
+
+        Statistics statistics = statements.getStatistics();
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+}
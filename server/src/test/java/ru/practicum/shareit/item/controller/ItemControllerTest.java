@@ -11,19 +11,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.exception.IllegalAddCommentOperationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemTransferService;
 import utils.ResourcePool;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static utils.ResourcePool.itemController_getItemById_itemDto;
 import static utils.ResourcePool.itemController_getOwnersItems_itemDto;
@@ -36,6 +45,8 @@ public class ItemControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemTransferService itemTransferService;
 
     private ItemDto itemDto;
 
@@ -172,6 +183,7 @@ public class ItemControllerTest {
                 .andExpect(
                         MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(itemDtos)));
 
+        verify(itemService, Mockito.times(1)).getOwnersItemsETag(1);
         verify(itemService, Mockito.times(1)).getOwnersItems(1, 0, 20);
         verifyNoMoreInteractions(itemService);
     }
@@ -194,6 +206,120 @@ public class ItemControllerTest {
         verifyNoMoreInteractions(itemService);
     }
 
+    @SneakyThrows
+    @Test
+    void getItemAvailability_shouldReturnFreePeriods() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 10, 0);
+        List<FreePeriodDto> freePeriods = List.of(new FreePeriodDto(from, LocalDateTime.of(2030, 1, 3, 0, 0)),
+                new FreePeriodDto(LocalDateTime.of(2030, 1, 5, 0, 0), to));
+        when(itemService.getItemAvailability(1, 1, from, to)).thenReturn(freePeriods);
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/items/1/availability?from=2030-01-01T10:00:00" +
+                                        "&to=2030-01-10T10:00:00")
+                                .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(freePeriods)));
+
+        verify(itemService, Mockito.times(1)).getItemAvailability(1, 1, from, to);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItems_shouldSearchAvailableItemsWhenPeriodIsSet() {
+        itemDto.setId(1);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 20, 0, 0);
+        when(itemService.searchAvailableItems("item", start, end, 0, 20)).thenReturn(List.of(itemDto));
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/items/search?text=item&from=0&size=20" +
+                                        "&start=2030-01-10T00:00:00&end=2030-01-20T00:00:00")
+                                .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(
+                        MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(List.of(itemDto))));
+
+        verify(itemService, Mockito.times(1)).searchAvailableItems("item", start, end, 0, 20);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_shouldImportFileOfContentTypeFormat() {
+        ItemImportResultDto result = new ItemImportResultDto(1, 1,
+                List.of(new ItemImportErrorDto(2, "Field name should not be blank")));
+        when(itemTransferService.importItems(eq(1), eq(ItemFileFormat.CSV), any(InputStream.class)))
+                .thenReturn(result);
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.post("/items/import")
+                                .content("name,description,available\nItem 1,Item 1 description,true\n" +
+                                        ",Item 2 description,true\n")
+                                .header("X-Sharer-User-Id", 1)
+                                .contentType("text/csv;charset=UTF-8"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(result)));
+
+        verify(itemTransferService, Mockito.times(1)).importItems(eq(1), eq(ItemFileFormat.CSV),
+                any(InputStream.class));
+        verifyNoMoreInteractions(itemTransferService);
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_shouldRejectUnsupportedContentType() {
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.post("/items/import")
+                                .content(objectMapper.writeValueAsString(List.of(itemDto)))
+                                .header("X-Sharer-User-Id", 1)
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType());
+
+        verifyNoInteractions(itemTransferService);
+    }
+
+    @SneakyThrows
+    @Test
+    void exportItems_shouldStreamItemsInRequestedFormat() {
+        String csv = "id,name,description,available,requestId\n1,\"Item 1\",\"Item 1 description\",true,\n";
+        when(itemTransferService.exportItems(1, ItemFileFormat.CSV))
+                .thenReturn(output -> output.write(csv.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult mvcResult = mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/items/export?format=csv")
+                                .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(MockMvcResultMatchers.content().string(csv));
+
+        verify(itemTransferService, Mockito.times(1)).exportItems(1, ItemFileFormat.CSV);
+        verifyNoMoreInteractions(itemTransferService);
+    }
+
+    @SneakyThrows
+    @Test
+    void exportItems_shouldRejectUnknownFormat() {
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/items/export?format=xml")
+                                .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verifyNoInteractions(itemTransferService);
+    }
+
     @SneakyThrows
     @Test
     void addComment_shouldAddNewComment() {
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.service.SearchMode;
+import ru.practicum.shareit.item.storage.ItemStorage;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ItemSearchIndexTest {
+    private ItemStorage itemStorage;
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        itemStorage = mock(ItemStorage.class);
+        List<ItemEntity> itemEntities = List.of(
+                item(1, "Дрель", "Простая дрель", true),
+                item(2, "Отвертка", "Аккумуляторная отвертка", true),
+                item(3, "Дрель ударная", "Мощная", false),
+                item(4, "TV", "Телевизор", true),
+                item(5, "Аккумуляторная дрель", "Дрель + аккумулятор", true));
+        when(itemStorage.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(itemEntities, PageRequest.of(0, 1000), itemEntities.size()));
+        itemSearchIndex = new ItemSearchIndex(itemStorage, SearchMode.INDEX);
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldNotLoadItemsWhenIndexIsDisabled() {
+        ItemStorage storage = mock(ItemStorage.class);
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(storage, SearchMode.LIKE);
+
+        disabledIndex.rebuild();
+
+        assertFalse(disabledIndex.isReady());
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void search_shouldFindAvailableItemsBySubstringIgnoringCase() {
+        assertTrue(itemSearchIndex.isReady());
+        assertEquals(List.of(1, 5), ids(itemSearchIndex.search("дРЕль", 0, 10)));
+        assertEquals(List.of(2, 5), ids(itemSearchIndex.search("аккум", 0, 10)));
+        assertEquals(List.of(5), ids(itemSearchIndex.search("ль + ак", 0, 10)));
+        assertTrue(itemSearchIndex.search("перфоратор", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldIgnoreDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            List<ItemEntity> itemEntities = List.of(item(1, "DRILL", "IMPACT DRILL", true));
+            when(itemStorage.findAll(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(itemEntities, PageRequest.of(0, 1000), itemEntities.size()));
+            itemSearchIndex.rebuild();
+
+            assertEquals(List.of(1), ids(itemSearchIndex.search("drill", 0, 10)));
+            assertEquals(List.of(1), ids(itemSearchIndex.search("Impact", 0, 10)));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void search_shouldApplyFilterBeforePaging() {
+        assertEquals(List.of(5), ids(itemSearchIndex.search("дрель", 0, 10, id -> id != 1)));
+        assertEquals(List.of(5), ids(itemSearchIndex.search("аккум", 0, 1, id -> id != 2)));
+        assertTrue(itemSearchIndex.search("аккум", 1, 10, id -> id != 2).isEmpty());
+    }
+
+    @Test
+    void search_shouldFindItemsByQueryShorterThanTrigram() {
+        assertEquals(List.of(4), ids(itemSearchIndex.search("tv", 0, 10)));
+        assertEquals(List.of(1, 2, 4, 5), ids(itemSearchIndex.search("е", 0, 10)));
+    }
+
+    @Test
+    void search_shouldReturnRequestedPage() {
+        assertEquals(List.of(2, 4), ids(itemSearchIndex.search("е", 1, 2)));
+    }
+
+    @Test
+    void index_shouldUpdateAndRemoveItems() {
+        itemSearchIndex.index(item(1, "Перфоратор", "Простой перфоратор", true));
+        itemSearchIndex.index(item(5, "Аккумуляторная дрель", "Дрель + аккумулятор", false));
+        itemSearchIndex.index(item(3, "Дрель ударная", "Мощная", true));
+        itemSearchIndex.index(item(6, "Дрель", "Новая", true));
+
+        assertEquals(List.of(3, 6), ids(itemSearchIndex.search("дрель", 0, 10)));
+        assertEquals(List.of(1), ids(itemSearchIndex.search("перфоратор", 0, 10)));
+        assertEquals(List.of(2), ids(itemSearchIndex.search("аккум", 0, 10)));
+    }
+
+    private static ItemEntity item(int id, String name, String description, boolean available) {
+        return ItemEntity.builder().id(id).name(name).description(description).available(available).ownerId(1)
+                .build();
+    }
+
+    private static List<Integer> ids(List<ItemEntity> itemEntities) {
+        return itemEntities.stream().map(ItemEntity::getId).collect(Collectors.toList());
+    }
+}
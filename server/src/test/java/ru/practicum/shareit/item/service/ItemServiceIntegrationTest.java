@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.model.BookingEntity;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -107,6 +108,7 @@ public class ItemServiceIntegrationTest {
         for (BookingEntity booking : bookings) {
             booking.setItem(itemEntity);
             booking.setBooker(booker);
+            booking.setOwnerId(booking.getItem().getOwnerId());
             em.persist(booking);
         }
         em.flush();
@@ -174,6 +176,7 @@ public class ItemServiceIntegrationTest {
                 booking.setItem(otherItem);
             }
             booking.setBooker(booker);
+            booking.setOwnerId(booking.getItem().getOwnerId());
             em.persist(booking);
         }
         em.flush();
@@ -222,6 +225,45 @@ public class ItemServiceIntegrationTest {
         }
     }
 
+    @Test
+    void getOwnersItems_shouldSkipRejectedAndCanceledBookingsLikeGetItemById() {
+        UserEntity booker = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(userEntity);
+        em.persist(booker);
+        itemEntity.setOwnerId(userEntity.getId());
+        em.persist(itemEntity);
+        LocalDateTime now = LocalDateTime.now();
+        BookingEntity lastBooking = booking(booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        booking(booker, now.minusDays(2), now.minusDays(1), BookingStatus.CANCELED);
+        booking(booker, now.plusDays(1), now.plusDays(2), BookingStatus.CANCELED);
+        booking(booker, now.plusDays(2), now.plusDays(3), BookingStatus.REJECTED);
+        BookingEntity nextBooking = booking(booker, now.plusDays(3), now.plusDays(4), BookingStatus.WAITING);
+        em.flush();
+
+        ItemDto ownersItemDto = itemService.getOwnersItems(userEntity.getId(), 0, 10).get(0);
+        ItemDto itemDto = itemService.getItemById(userEntity.getId(), itemEntity.getId());
+
+        assertEquals(lastBooking.getId(), ownersItemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), ownersItemDto.getNextBooking().getId());
+        assertEquals(itemDto.getLastBooking().getId(), ownersItemDto.getLastBooking().getId());
+        assertEquals(itemDto.getNextBooking().getId(), ownersItemDto.getNextBooking().getId());
+    }
+
+    @Test
+    void getOwnersItemsETag_shouldChangeAfterItemIsUpdated() {
+        em.persist(userEntity);
+        em.flush();
+        Integer userId = userEntity.getId();
+        ItemDto createdItemDto = itemService.createItem(userId, itemDto);
+        String eTag = itemService.getOwnersItemsETag(userId);
+
+        assertEquals(eTag, itemService.getOwnersItemsETag(userId));
+
+        itemService.updateItem(userId, ItemDto.builder().id(createdItemDto.getId()).available(false).build());
+
+        assertNotEquals(eTag, itemService.getOwnersItemsETag(userId));
+    }
+
     @Test
     void searchItems_shouldReturnItem() {
         em.persist(userEntity);
@@ -265,6 +307,7 @@ public class ItemServiceIntegrationTest {
         for (BookingEntity booking : bookings) {
             booking.setItem(itemEntity);
             booking.setBooker(booker);
+            booking.setOwnerId(booking.getItem().getOwnerId());
             em.persist(booking);
         }
         em.flush();
@@ -277,4 +320,11 @@ public class ItemServiceIntegrationTest {
         assertEquals("User 2", actualCommentDto.getAuthorName());
         assertFalse(actualCommentDto.getCreated().isAfter(LocalDateTime.now()));
     }
+
+    private BookingEntity booking(UserEntity booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        BookingEntity booking = BookingEntity.builder().item(itemEntity).ownerId(itemEntity.getOwnerId())
+                .booker(booker).start(start).end(end).status(status).build();
+        em.persist(booking);
+        return booking;
+    }
 }
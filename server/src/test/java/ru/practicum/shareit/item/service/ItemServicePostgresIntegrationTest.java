@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.BookingEntity;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.user.model.UserEntity;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Полнотекстовый поиск на PostgreSQL. Запускается, если задана переменная SHAREIT_TEST_POSTGRES_URL.
+ */
+@Transactional
+@EnabledIfEnvironmentVariable(named = "SHAREIT_TEST_POSTGRES_URL", matches = ".+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit.search.mode=full_text",
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_TEST_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_TEST_POSTGRES_USER:postgres}",
+        "spring.datasource.password=${SHAREIT_TEST_POSTGRES_PASSWORD:postgres}",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemServicePostgresIntegrationTest {
+    private final ItemService itemService;
+    private final EntityManager em;
+
+    private UserEntity owner;
+    private UserEntity booker;
+    private ItemEntity drill;
+    private ItemEntity saw;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = UserEntity.builder().name("Owner").email("owner@yandex.ru").build();
+        booker = UserEntity.builder().name("Booker").email("booker@yandex.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        drill = ItemEntity.builder().name("Cordless drill").description("Drill with two batteries")
+                .available(true).ownerId(owner.getId()).build();
+        saw = ItemEntity.builder().name("Hand saw").description("Saw for drilled boards").available(true)
+                .ownerId(owner.getId()).build();
+        em.persist(drill);
+        em.persist(saw);
+        em.persist(ItemEntity.builder().name("Broken drill").description("Drill without battery")
+                .available(false).ownerId(owner.getId()).build());
+        em.flush();
+    }
+
+    @Test
+    void searchItems_shouldFindAvailableItemsByWordPrefixes() {
+        List<ItemDto> itemDtos = itemService.searchItems("dril", 0, 20);
+
+        assertEquals(List.of(drill.getId(), saw.getId()), itemDtos.stream().map(ItemDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchItems_shouldRequireAllWords() {
+        List<ItemDto> itemDtos = itemService.searchItems("drill batteries", 0, 20);
+
+        assertEquals(List.of(drill.getId()), itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchAvailableItems_shouldSkipItemsBookedInPeriod() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 20, 0, 0);
+        em.persist(BookingEntity.builder().item(drill).ownerId(owner.getId()).booker(booker)
+                .start(start.plusDays(2)).end(end.plusDays(2)).status(BookingStatus.APPROVED).build());
+        em.persist(BookingEntity.builder().item(saw).ownerId(owner.getId()).booker(booker)
+                .start(start.plusDays(2)).end(end.plusDays(2)).status(BookingStatus.REJECTED).build());
+        em.flush();
+
+        List<ItemDto> itemDtos = itemService.searchAvailableItems("drill", start, end, 0, 20);
+
+        assertEquals(List.of(saw.getId()), itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(2, itemService.searchAvailableItems("drill", end.plusDays(5), end.plusDays(6), 0, 20).size());
+    }
+}
@@ -10,22 +10,28 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import ru.practicum.shareit.booking.mapper.BookingInfoMapper;
 import ru.practicum.shareit.booking.model.BookingEntity;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookedPeriods;
 import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.IllegalAddCommentOperationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.mapper.ItemMapperImpl;
 import ru.practicum.shareit.item.model.CommentEntity;
 import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.storage.CommentStorage;
 import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequestEntity;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 import utils.ResourcePool;
 
@@ -33,8 +39,11 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static utils.ResourcePool.*;
 
@@ -42,9 +51,17 @@ import static utils.ResourcePool.*;
 public class ItemServiceSpringBootTest {
     @Autowired
     private ItemServiceImpl itemService;
+    @Autowired
+    private ItemMapper itemMapper;
+    @Autowired
+    private CommentMapper commentMapper;
+    @Autowired
+    private BookingInfoMapper bookingInfoMapper;
     @MockBean
     private UserStorage userStorage;
     @MockBean
+    private KnownUserIds knownUserIds;
+    @MockBean
     private ItemStorage itemStorage;
     @MockBean
     private ItemRequestStorage itemRequestStorage;
@@ -52,6 +69,10 @@ public class ItemServiceSpringBootTest {
     private CommentStorage commentStorage;
     @MockBean
     private BookingStorage bookingStorage;
+    @MockBean
+    private BookedPeriods bookedPeriods;
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
 
     private ItemDto itemDto;
 
@@ -63,13 +84,13 @@ public class ItemServiceSpringBootTest {
     @Test
     void createItem_shouldThrowExceptionWhenItemOwnerNotFound() {
         Integer ownerId = 1;
-        when(userStorage.findById(ownerId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(ownerId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemService.createItem(ownerId, itemDto));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(ownerId);
+        verify(knownUserIds, Mockito.times(1)).exists(ownerId);
         verifyNoMoreInteractions(userStorage);
         verifyNoInteractions(itemRequestStorage);
         verifyNoInteractions(itemStorage);
@@ -80,14 +101,14 @@ public class ItemServiceSpringBootTest {
         Integer ownerId = 1;
         Integer requestId = 1;
         itemDto.setRequestId(requestId);
-        when(userStorage.findById(ownerId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(ownerId)).thenReturn(true);
         when(itemRequestStorage.findById(requestId)).thenReturn(Optional.empty());
 
         ItemRequestNotFoundException exception = assertThrows(ItemRequestNotFoundException.class,
                 () -> itemService.createItem(ownerId, itemDto));
 
         assertEquals("Item request with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(ownerId);
+        verify(knownUserIds, Mockito.times(1)).exists(ownerId);
         verify(itemRequestStorage, Mockito.times(1)).findById(requestId);
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemRequestStorage);
@@ -103,14 +124,14 @@ public class ItemServiceSpringBootTest {
                 .available(true).requestId(requestId).build();
         ItemDto expectedItemDto = ItemDto.builder().id(1).name("Item 1").description("Item 1 description")
                 .available(true).requestId(requestId).build();
-        when(userStorage.findById(ownerId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(ownerId)).thenReturn(true);
         when(itemRequestStorage.findById(requestId)).thenReturn(Optional.of(new ItemRequestEntity()));
         when(itemStorage.save(any())).thenReturn(savedItemEntity);
 
         ItemDto createdItemDto = itemService.createItem(ownerId, itemDto);
 
         assertEquals(expectedItemDto, createdItemDto);
-        verify(userStorage, Mockito.times(1)).findById(ownerId);
+        verify(knownUserIds, Mockito.times(1)).exists(ownerId);
         verify(itemRequestStorage, Mockito.times(1)).findById(requestId);
         verify(itemStorage, Mockito.times(1)).save(any());
         verifyNoMoreInteractions(userStorage);
@@ -121,13 +142,13 @@ public class ItemServiceSpringBootTest {
     @Test
     void updateItem_shouldThrowExceptionWhenUserNotFound() {
         Integer userId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemService.updateItem(userId, itemDto));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoMoreInteractions(userStorage);
         verifyNoInteractions(itemStorage);
     }
@@ -137,14 +158,14 @@ public class ItemServiceSpringBootTest {
         Integer userId = 1;
         Integer itemId = 1;
         itemDto.setId(itemId);
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemStorage.findById(itemId)).thenReturn(Optional.empty());
 
         ItemNotFoundException exception = assertThrows(ItemNotFoundException.class,
                 () -> itemService.updateItem(userId, itemDto));
 
         assertEquals("Item with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemStorage, Mockito.times(1)).findById(itemId);
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemStorage);
@@ -158,14 +179,14 @@ public class ItemServiceSpringBootTest {
 
         ItemEntity itemEntity = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
                 .available(true).ownerId(2).build();
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemStorage.findById(itemId)).thenReturn(Optional.of(itemEntity));
 
         UnsupportedOperationException exception = assertThrows(UnsupportedOperationException.class,
                 () -> itemService.updateItem(userId, itemDto));
 
         assertEquals("User with id: 1 is not owner of the item with id: 1", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemStorage, Mockito.times(1)).findById(itemId);
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemStorage);
@@ -183,7 +204,7 @@ public class ItemServiceSpringBootTest {
                 .available(true).ownerId(2).build();
         ItemDto itemDtoUpdated = ItemDto.builder().id(itemId).name("Item 1 updated")
                 .description("Item 1 description updated").available(true).build();
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemStorage.findById(itemId)).thenReturn(Optional.of(itemEntity));
         when(itemStorage.save(any())).thenReturn(itemEntityUpdated);
 
@@ -191,7 +212,7 @@ public class ItemServiceSpringBootTest {
 
         assertEquals(itemDtoUpdated, actualItemDto);
         Mockito.verify(itemStorage, Mockito.times(1)).save(any());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemStorage, Mockito.times(1)).findById(itemId);
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemStorage);
@@ -219,14 +240,14 @@ public class ItemServiceSpringBootTest {
         Integer itemId = 1;
         Integer userId = 1;
         when(itemStorage.findById(itemId)).thenReturn(Optional.of(ItemEntity.builder().build()));
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemService.getItemById(userId, itemId));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
         verify(itemStorage, Mockito.times(1)).findById(itemId);
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoMoreInteractions(itemStorage);
         verifyNoMoreInteractions(userStorage);
         verifyNoInteractions(bookingStorage);
@@ -247,18 +268,23 @@ public class ItemServiceSpringBootTest {
         ItemDto expectedItemDto = ResourcePool.read(getItemById_itemDto, ItemDto.class);
 
         when(itemStorage.findById(itemId)).thenReturn(Optional.of(itemEntity));
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
-        when(bookingStorage.findByItem_IdAndStatusNotIn(itemId, List.of(BookingStatus.REJECTED, BookingStatus.CANCELED)))
-                .thenReturn(bookingEntities);
+        when(knownUserIds.exists(userId)).thenReturn(true);
+        List<BookingStatus> excludedStatuses = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+        when(bookingStorage.findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByEndDesc(eq(itemId),
+                eq(excludedStatuses), any())).thenReturn(Optional.of(bookingEntities.get(0)));
+        when(bookingStorage.findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAsc(eq(itemId),
+                eq(excludedStatuses), any())).thenReturn(Optional.of(bookingEntities.get(1)));
         when(commentStorage.findByItem_Id(itemId)).thenReturn(commentEntities);
 
         ItemDto actualItemDto = itemService.getItemById(userId, itemId);
 
         assertEquals(expectedItemDto, actualItemDto);
         verify(itemStorage, Mockito.times(1)).findById(itemId);
-        verify(userStorage, Mockito.times(1)).findById(userId);
-        verify(bookingStorage, times(1))
-                .findByItem_IdAndStatusNotIn(itemId, List.of(BookingStatus.REJECTED, BookingStatus.CANCELED));
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
+        verify(bookingStorage, times(1)).findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByEndDesc(eq(itemId),
+                eq(excludedStatuses), any());
+        verify(bookingStorage, times(1)).findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAsc(eq(itemId),
+                eq(excludedStatuses), any());
         verify(commentStorage, times(1)).findByItem_Id(itemId);
         verifyNoMoreInteractions(itemStorage);
         verifyNoMoreInteractions(userStorage);
@@ -269,13 +295,13 @@ public class ItemServiceSpringBootTest {
     @Test
     void getOwnersItems_shouldThrowExceptionWhenUserNotFound() {
         Integer userId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemService.getOwnersItems(userId, 0, 20));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoMoreInteractions(userStorage);
         verifyNoInteractions(itemStorage);
         verifyNoInteractions(bookingStorage);
@@ -294,26 +320,68 @@ public class ItemServiceSpringBootTest {
                 new TypeReference<>() {
                 });
 
-        when(userStorage.findById(ownerId)).thenReturn(Optional.of(new UserEntity()));
+        List<Integer> itemIds = List.of(1, 2);
+        List<BookingStatus> excludedStatuses = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+
+        when(knownUserIds.exists(ownerId)).thenReturn(true);
         when(itemStorage.findByOwnerId(eq(ownerId), any())).thenReturn(itemEntities);
-        when(bookingStorage.findByItem_OwnerId(ownerId)).thenReturn(bookingEntities);
-        when(commentStorage.findByItem_OwnerId(ownerId)).thenReturn(commentEntities);
+        when(bookingStorage.findLastBookings(eq(itemIds), eq(excludedStatuses), any()))
+                .thenReturn(List.of(bookingEntities.get(0), bookingEntities.get(2)));
+        when(bookingStorage.findNextBookings(eq(itemIds), eq(excludedStatuses), any()))
+                .thenReturn(List.of(bookingEntities.get(1), bookingEntities.get(3)));
+        when(commentStorage.findByItem_IdIn(itemIds)).thenReturn(commentEntities);
 
         List<ItemDto> actualItemDtos = itemService.getOwnersItems(ownerId, 0, 20);
         List<ItemDto> expectedItemDtos = ResourcePool.read(getOwnersItems_itemDtos, new TypeReference<>() {
         });
 
         assertEquals(expectedItemDtos, actualItemDtos);
-        verify(userStorage, times(1)).findById(ownerId);
+        verify(knownUserIds, times(1)).exists(ownerId);
         verify(itemStorage, times(1)).findByOwnerId(eq(ownerId), any());
-        verify(bookingStorage, times(1)).findByItem_OwnerId(ownerId);
-        verify(commentStorage, times(1)).findByItem_OwnerId(ownerId);
+        verify(bookingStorage, times(1)).findLastBookings(eq(itemIds), eq(excludedStatuses), any());
+        verify(bookingStorage, times(1)).findNextBookings(eq(itemIds), eq(excludedStatuses), any());
+        verify(commentStorage, times(1)).findByItem_IdIn(itemIds);
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemStorage);
         verifyNoMoreInteractions(bookingStorage);
         verifyNoMoreInteractions(commentStorage);
     }
 
+    @Test
+    void getOwnersItems_shouldNotLoadBookingsAndCommentsWhenPageIsEmpty() {
+        Integer ownerId = 1;
+        when(knownUserIds.exists(ownerId)).thenReturn(true);
+        when(itemStorage.findByOwnerId(eq(ownerId), any())).thenReturn(new ArrayList<>());
+
+        List<ItemDto> actualItemDtos = itemService.getOwnersItems(ownerId, 20, 20);
+
+        assertTrue(actualItemDtos.isEmpty());
+        verify(knownUserIds, times(1)).exists(ownerId);
+        verify(itemStorage, times(1)).findByOwnerId(eq(ownerId), any());
+        verifyNoMoreInteractions(userStorage);
+        verifyNoMoreInteractions(itemStorage);
+        verifyNoInteractions(bookingStorage);
+        verifyNoInteractions(commentStorage);
+    }
+
+    @Test
+    void getOwnersItemsAfter_shouldSeekPastCursorId() {
+        Integer ownerId = 1;
+        when(knownUserIds.exists(ownerId)).thenReturn(true);
+        when(itemStorage.findByOwnerIdAfter(eq(ownerId), eq(20), any())).thenReturn(new ArrayList<>());
+
+        List<ItemDto> actualItemDtos = itemService.getOwnersItemsAfter(ownerId, PageCursor.of(20), 20);
+
+        assertTrue(actualItemDtos.isEmpty());
+        verify(knownUserIds, times(1)).exists(ownerId);
+        verify(itemStorage, times(1)).findByOwnerIdAfter(eq(ownerId), eq(20),
+                argThat(pageable -> pageable.getOffset() == 0 && pageable.getPageSize() == 20));
+        verifyNoMoreInteractions(userStorage);
+        verifyNoMoreInteractions(itemStorage);
+        verifyNoInteractions(bookingStorage);
+        verifyNoInteractions(commentStorage);
+    }
+
     @Test
     void searchItems_shouldReturnEmptyListWhenQueryIsBlank() {
         List<ItemDto> actualItemDtos = itemService.searchItems(" ", 0, 20);
@@ -339,6 +407,122 @@ public class ItemServiceSpringBootTest {
         verifyNoMoreInteractions(itemStorage);
     }
 
+    @Test
+    void searchAvailableItems_shouldReturnItemList() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 20, 0, 0);
+        List<ItemEntity> itemEntities = ResourcePool.read(searchItems_itemEntity, new TypeReference<>() {
+        });
+        when(itemStorage.searchAvailableItems(eq("Item"), eq(BookedPeriods.ACTIVE_STATUSES), eq(start), eq(end),
+                any())).thenReturn(itemEntities);
+
+        List<ItemDto> actualItemDtos = itemService.searchAvailableItems("Item", start, end, 0, 20);
+
+        List<ItemDto> expectedItemDtos = ResourcePool.read(searchItems_itemDto, new TypeReference<>() {
+        });
+
+        assertEquals(expectedItemDtos, actualItemDtos);
+        verify(itemStorage, times(1)).searchAvailableItems(eq("Item"), eq(BookedPeriods.ACTIVE_STATUSES),
+                eq(start), eq(end), any());
+        verifyNoMoreInteractions(itemStorage);
+        verifyNoInteractions(bookedPeriods);
+    }
+
+    @Test
+    void searchAvailableItems_shouldUsePrefixFullTextQueryInFullTextMode() {
+        ItemService service = createItemService(SearchMode.FULL_TEXT);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 20, 0, 0);
+        when(itemStorage.searchAvailableItemsFullText(eq("item:*"), eq(start), eq(end), any()))
+                .thenReturn(List.of());
+
+        List<ItemDto> actualItemDtos = service.searchAvailableItems("Item", start, end, 0, 20);
+
+        assertTrue(actualItemDtos.isEmpty());
+        verify(itemStorage, times(1)).searchAvailableItemsFullText(eq("item:*"), eq(start), eq(end), any());
+        verifyNoMoreInteractions(itemStorage);
+    }
+
+    @Test
+    void searchAvailableItems_shouldFilterSearchIndexByBookedPeriodsInIndexMode() {
+        ItemService service = createItemService(SearchMode.INDEX);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 20, 0, 0);
+        List<ItemEntity> itemEntities = ResourcePool.read(searchItems_itemEntity, new TypeReference<>() {
+        });
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(bookedPeriods.isFree(1, start, end)).thenReturn(false);
+        when(itemSearchIndex.search(eq("Item"), eq(0), eq(20), any())).thenAnswer(invocationOnMock -> {
+            IntPredicate filter = invocationOnMock.getArgument(3);
+            assertFalse(filter.test(1));
+            return itemEntities;
+        });
+
+        List<ItemDto> actualItemDtos = service.searchAvailableItems("Item", start, end, 0, 20);
+
+        assertEquals(itemEntities.size(), actualItemDtos.size());
+        verify(bookedPeriods, times(1)).isFree(1, start, end);
+        verifyNoInteractions(itemStorage);
+    }
+
+    @Test
+    void searchItems_shouldUsePrefixFullTextQueryInFullTextMode() {
+        ItemService service = createItemService(SearchMode.FULL_TEXT);
+        List<ItemEntity> itemEntities = ResourcePool.read(searchItems_itemEntity, new TypeReference<>() {
+        });
+        when(itemStorage.searchItemsFullText(eq("item:* & 1:*"), any())).thenReturn(itemEntities);
+
+        List<ItemDto> actualItemDtos = service.searchItems("Item, 1", 0, 20);
+
+        List<ItemDto> expectedItemDtos = ResourcePool.read(searchItems_itemDto, new TypeReference<>() {
+        });
+
+        assertEquals(expectedItemDtos, actualItemDtos);
+        verify(itemStorage, times(1)).searchItemsFullText(eq("item:* & 1:*"), any());
+        verifyNoMoreInteractions(itemStorage);
+    }
+
+    @Test
+    void searchItems_shouldReturnEmptyListWhenQueryHasNoWordsInFullTextMode() {
+        ItemService service = createItemService(SearchMode.FULL_TEXT);
+
+        List<ItemDto> actualItemDtos = service.searchItems("&!:*", 0, 20);
+
+        assertTrue(actualItemDtos.isEmpty());
+        verifyNoInteractions(itemStorage);
+    }
+
+    @Test
+    void searchItems_shouldUseSearchIndexInIndexModeWhenIndexIsReady() {
+        ItemService service = createItemService(SearchMode.INDEX);
+        List<ItemEntity> itemEntities = ResourcePool.read(searchItems_itemEntity, new TypeReference<>() {
+        });
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.search("Item", 0, 20)).thenReturn(itemEntities);
+
+        List<ItemDto> actualItemDtos = service.searchItems("Item", 0, 20);
+
+        List<ItemDto> expectedItemDtos = ResourcePool.read(searchItems_itemDto, new TypeReference<>() {
+        });
+
+        assertEquals(expectedItemDtos, actualItemDtos);
+        verify(itemSearchIndex, times(1)).search("Item", 0, 20);
+        verifyNoInteractions(itemStorage);
+    }
+
+    @Test
+    void searchItems_shouldSearchInDatabaseInIndexModeWhenIndexIsNotReady() {
+        ItemService service = createItemService(SearchMode.INDEX);
+        when(itemSearchIndex.isReady()).thenReturn(false);
+        when(itemStorage.searchItems(eq("Item"), any())).thenReturn(new ArrayList<>());
+
+        List<ItemDto> actualItemDtos = service.searchItems("Item", 0, 20);
+
+        assertTrue(actualItemDtos.isEmpty());
+        verify(itemSearchIndex, never()).search(any(), anyInt(), anyInt());
+        verify(itemStorage, times(1)).searchItems(eq("Item"), any());
+    }
+
     @Test
     void addComment_shouldThrowExceptionWhenItemNotFound() {
         Integer itemId = 1;
@@ -436,4 +620,70 @@ public class ItemServiceSpringBootTest {
         verifyNoMoreInteractions(commentStorage);
     }
 
+    @Test
+    void getItemAvailability_shouldReturnFreePeriodsOfItem() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        ItemEntity itemEntity = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
+                .available(true).ownerId(2).build();
+        TreeMap<LocalDateTime, LocalDateTime> freePeriods = new TreeMap<>();
+        freePeriods.put(from, from.plusDays(2));
+        freePeriods.put(from.plusDays(5), to);
+        when(knownUserIds.exists(1)).thenReturn(true);
+        when(itemStorage.findById(1)).thenReturn(Optional.of(itemEntity));
+        when(bookedPeriods.findFreePeriods(1, from, to)).thenReturn(freePeriods);
+
+        List<FreePeriodDto> actualFreePeriods = itemService.getItemAvailability(1, 1, from, to);
+
+        assertEquals(List.of(new FreePeriodDto(from, from.plusDays(2)), new FreePeriodDto(from.plusDays(5), to)),
+                actualFreePeriods);
+        verify(bookedPeriods, Mockito.times(1)).findFreePeriods(1, from, to);
+        verifyNoMoreInteractions(bookedPeriods);
+        verifyNoInteractions(bookingStorage);
+    }
+
+    @Test
+    void getItemAvailability_shouldStartFromNowAndCoverDefaultPeriod() {
+        ItemEntity itemEntity = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
+                .available(true).ownerId(2).build();
+        when(knownUserIds.exists(1)).thenReturn(true);
+        when(itemStorage.findById(1)).thenReturn(Optional.of(itemEntity));
+        when(bookedPeriods.findFreePeriods(eq(1), any(), any())).thenReturn(new TreeMap<>());
+        LocalDateTime before = LocalDateTime.now().withNano(0);
+
+        itemService.getItemAvailability(1, 1, LocalDateTime.of(2020, 1, 1, 0, 0), null);
+
+        verify(bookedPeriods, Mockito.times(1)).findFreePeriods(eq(1),
+                argThat(start -> !start.isBefore(before)),
+                argThat(end -> !end.isBefore(before.plusDays(90))));
+    }
+
+    @Test
+    void getItemAvailability_shouldReturnEmptyListWhenItemIsNotAvailable() {
+        ItemEntity itemEntity = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
+                .available(false).ownerId(2).build();
+        when(knownUserIds.exists(1)).thenReturn(true);
+        when(itemStorage.findById(1)).thenReturn(Optional.of(itemEntity));
+
+        assertEquals(List.of(), itemService.getItemAvailability(1, 1, null, null));
+        verifyNoInteractions(bookedPeriods);
+    }
+
+    @Test
+    void getItemAvailability_shouldThrowExceptionWhenItemNotFound() {
+        when(knownUserIds.exists(1)).thenReturn(true);
+        when(itemStorage.findById(1)).thenReturn(Optional.empty());
+
+        ItemNotFoundException exception = assertThrows(ItemNotFoundException.class,
+                () -> itemService.getItemAvailability(1, 1, null, null));
+
+        assertEquals("Item with id 1 was not found", exception.getMessage());
+        verifyNoInteractions(bookedPeriods);
+    }
+
+    private ItemService createItemService(SearchMode searchMode) {
+        return new ItemServiceImpl(userStorage, knownUserIds, itemStorage, itemRequestStorage, commentStorage,
+                bookingStorage, bookedPeriods, itemMapper, commentMapper, bookingInfoMapper, itemSearchIndex,
+                searchMode);
+    }
 }
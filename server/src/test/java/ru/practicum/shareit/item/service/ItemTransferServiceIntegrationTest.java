@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemFileFormat;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.request.model.ItemRequestEntity;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.UserEntity;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Маленькие порции и страницы, чтобы файлы из нескольких строк проходили через несколько транзакций и запросов.
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit.items.import.chunk-size=2", "shareit.items.export.page-size=2"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemTransferServiceIntegrationTest {
+    private final ItemTransferService itemTransferService;
+    private final EntityManager em;
+
+    private UserEntity owner;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
+        em.persist(owner);
+        em.flush();
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_shouldImportValidRowsAndReportInvalidOnes() {
+        ItemRequestEntity request = ItemRequestEntity.builder().description("Need a drill").requestorId(owner.getId())
+                .created(LocalDateTime.now()).build();
+        em.persist(request);
+        em.flush();
+        String file = "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}\n" +
+                "{\"name\":\" \",\"description\":\"No name\",\"available\":true}\n" +
+                "{\"name\":\"Saw\",\"description\":\"Hand saw\",\"available\":\"maybe\"}\n" +
+                "{\"name\":\"Hammer\",\"description\":\"Claw hammer\",\"available\":true,\"requestId\":999}\n" +
+                "\n" +
+                "{\"name\":\"Ladder\",\"description\":\"Ladder\",\"available\":false,\"requestId\":" +
+                request.getId() + "}\n";
+
+        ItemImportResultDto result = itemTransferService.importItems(owner.getId(), ItemFileFormat.NDJSON,
+                toStream(file));
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream().map(ItemImportErrorDto::getRow)
+                .collect(Collectors.toList()));
+        assertEquals("Field name should not be blank", result.getErrors().get(0).getError());
+        assertEquals("Item request with id 999 was not found", result.getErrors().get(2).getError());
+        List<ItemEntity> items = findOwnersItems();
+        assertEquals(List.of("Drill", "Ladder"), items.stream().map(ItemEntity::getName)
+                .collect(Collectors.toList()));
+        assertEquals(request.getId(), items.get(1).getRequestId());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_shouldImportCsvWithQuotedFields() {
+        String file = "name,description,available,requestId,color\n" +
+                "Drill,\"Cordless, with two batteries\",true,,red\n" +
+                "Saw,\"Hand saw\nfor wood\",false,,\n" +
+                "Hammer,,true,,\n";
+
+        ItemImportResultDto result = itemTransferService.importItems(owner.getId(), ItemFileFormat.CSV,
+                toStream(file));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(5, result.getErrors().get(0).getRow());
+        assertEquals("Field description should not be blank", result.getErrors().get(0).getError());
+        List<ItemEntity> items = findOwnersItems();
+        assertEquals("Cordless, with two batteries", items.get(0).getDescription());
+        assertEquals("Hand saw\nfor wood", items.get(1).getDescription());
+        assertFalse(items.get(1).getAvailable());
+        assertNull(items.get(1).getRequestId());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_shouldReportAllViolationsOfRow() {
+        String file = "\n{\"name\":\"" + "a".repeat(256) + "\",\"description\":\"Long name\"}\n";
+
+        ItemImportResultDto result = itemTransferService.importItems(owner.getId(), ItemFileFormat.NDJSON,
+                toStream(file));
+
+        assertEquals(0, result.getImported());
+        assertEquals(List.of(new ItemImportErrorDto(2, "Field available should not be null; " +
+                "Field name should not be longer than 255 characters")), result.getErrors());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_shouldStopAtMalformedRowAndKeepPreviousRows() {
+        String file = "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}\n" +
+                "{\"name\" \"Saw\"}\n" +
+                "{\"name\":\"Hammer\",\"description\":\"Claw hammer\",\"available\":true}\n";
+
+        ItemImportResultDto result = itemTransferService.importItems(owner.getId(), ItemFileFormat.NDJSON,
+                toStream(file));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getError().startsWith("Malformed row"));
+        assertEquals(List.of("Drill"), findOwnersItems().stream().map(ItemEntity::getName)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void importItems_shouldThrowUserNotFoundException() {
+        assertThrows(UserNotFoundException.class, () -> itemTransferService.importItems(-1,
+                ItemFileFormat.NDJSON, toStream("")));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportItems_shouldWriteOnlyOwnersItemsPageByPage() {
+        UserEntity otherUser = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(otherUser);
+        for (int i = 1; i <= 3; i++) {
+            em.persist(ItemEntity.builder().name("Item " + i).description("Item " + i + " description")
+                    .available(i != 2).ownerId(owner.getId()).build());
+        }
+        em.persist(ItemEntity.builder().name("Other item").description("Other item description").available(true)
+                .ownerId(otherUser.getId()).build());
+        em.flush();
+
+        String ndjson = export(ItemFileFormat.NDJSON);
+        String csv = export(ItemFileFormat.CSV);
+
+        List<String> lines = ndjson.lines().collect(Collectors.toList());
+        assertEquals(3, lines.size());
+        assertTrue(ndjson.endsWith("\n"));
+        assertTrue(lines.get(1).contains("\"name\":\"Item 2\",\"description\":\"Item 2 description\"," +
+                "\"available\":false,\"requestId\":null"));
+        List<String> rows = csv.lines().collect(Collectors.toList());
+        assertEquals("id,name,description,available,requestId", rows.get(0));
+        assertEquals(4, rows.size());
+        assertTrue(rows.get(3).endsWith(",\"Item 3\",\"Item 3 description\",true,"));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportItems_shouldWriteCsvThatCanBeImportedBack() {
+        em.persist(ItemEntity.builder().name("Drill").description("Cordless, \"pro\"\nmodel").available(true)
+                .ownerId(owner.getId()).build());
+        em.flush();
+        String csv = export(ItemFileFormat.CSV);
+
+        ItemImportResultDto result = itemTransferService.importItems(owner.getId(), ItemFileFormat.CSV,
+                toStream(csv));
+
+        assertEquals(1, result.getImported());
+        List<ItemEntity> items = findOwnersItems();
+        assertEquals(2, items.size());
+        assertEquals(items.get(0).getDescription(), items.get(1).getDescription());
+    }
+
+    @Test
+    void exportItems_shouldThrowUserNotFoundException() {
+        assertThrows(UserNotFoundException.class, () -> itemTransferService.exportItems(-1,
+                ItemFileFormat.CSV));
+    }
+
+    @SneakyThrows
+    private String export(ItemFileFormat format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        itemTransferService.exportItems(owner.getId(), format).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<ItemEntity> findOwnersItems() {
+        return em.createQuery("select i from ItemEntity i where i.ownerId = :ownerId order by i.id",
+                ItemEntity.class).setParameter("ownerId", owner.getId()).getResultList();
+    }
+
+    private static ByteArrayInputStream toStream(String file) {
+        return new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8));
+    }
+}
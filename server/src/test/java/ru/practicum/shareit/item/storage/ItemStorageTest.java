@@ -7,11 +7,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingEntity;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookedPeriods;
+import ru.practicum.shareit.booking.storage.BookingStorage;
 import ru.practicum.shareit.item.model.ItemEntity;
 import ru.practicum.shareit.user.model.UserEntity;
 import ru.practicum.shareit.user.storage.UserStorage;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -22,6 +28,8 @@ public class ItemStorageTest {
     private ItemStorage itemStorage;
     @Autowired
     private UserStorage userStorage;
+    @Autowired
+    private BookingStorage bookingStorage;
 
     @Test
     @Transactional
@@ -79,4 +87,37 @@ public class ItemStorageTest {
                 .isEqualTo(actualItemEntities.get(0));
         assertNotNull(actualItemEntities.get(0).getId());
     }
+
+    @Test
+    @Transactional
+    void searchAvailableItems_shouldSkipItemsBookedForPeriod() {
+        UserEntity owner = userStorage.save(UserEntity.builder().name("User 1").email("user1@yandex.ru").build());
+        UserEntity booker = userStorage.save(UserEntity.builder().name("User 2").email("user2@yandex.ru").build());
+        ItemEntity bookedDrill = itemStorage.save(ItemEntity.builder().name("Drill 1").description("Booked drill")
+                .available(true).ownerId(owner.getId()).build());
+        ItemEntity rejectedDrill = itemStorage.save(ItemEntity.builder().name("Drill 2")
+                .description("Drill with rejected booking").available(true).ownerId(owner.getId()).build());
+        ItemEntity laterDrill = itemStorage.save(ItemEntity.builder().name("Drill 3")
+                .description("Drill booked after the period").available(true).ownerId(owner.getId()).build());
+        itemStorage.save(ItemEntity.builder().name("Hammer").description("Free hammer").available(true)
+                .ownerId(owner.getId()).build());
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 20, 0, 0);
+        bookingStorage.save(booking(bookedDrill, booker, start.minusDays(1), start.plusDays(1),
+                BookingStatus.WAITING));
+        bookingStorage.save(booking(rejectedDrill, booker, start, end, BookingStatus.REJECTED));
+        bookingStorage.save(booking(laterDrill, booker, end, end.plusDays(1), BookingStatus.APPROVED));
+
+        List<ItemEntity> actualItemEntities = itemStorage.searchAvailableItems("drill",
+                BookedPeriods.ACTIVE_STATUSES, start, end, PageRequest.of(0, 20));
+
+        assertEquals(List.of(rejectedDrill.getId(), laterDrill.getId()),
+                actualItemEntities.stream().map(ItemEntity::getId).collect(Collectors.toList()));
+    }
+
+    private static BookingEntity booking(ItemEntity item, UserEntity booker, LocalDateTime start, LocalDateTime end,
+                                         BookingStatus status) {
+        return BookingEntity.builder().item(item).ownerId(item.getOwnerId()).booker(booker).start(start).end(end)
+                .status(status).build();
+    }
 }
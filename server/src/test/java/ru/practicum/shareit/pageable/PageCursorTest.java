@@ -0,0 +1,51 @@
+package ru.practicum.shareit.pageable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+    @Test
+    void decodeTimestampAndId_shouldRestoreEncodedCursor() {
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2024, 2, 1, 10, 30, 15, 123456000), 42);
+
+        assertEquals(cursor, PageCursor.decodeTimestampAndId(cursor.encode()));
+    }
+
+    @Test
+    void decodeId_shouldRestoreEncodedCursor() {
+        PageCursor cursor = PageCursor.of(7);
+
+        assertEquals(cursor, PageCursor.decodeId(cursor.encode()));
+    }
+
+    @Test
+    void decode_shouldThrowExceptionWhenCursorIsMalformed() {
+        String idCursor = PageCursor.of(7).encode();
+        String timestampCursor = PageCursor.of(LocalDateTime.of(2024, 2, 1, 0, 0), 7).encode();
+
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decodeTimestampAndId(idCursor));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decodeId(timestampCursor));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decodeId("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decodeId("YWJj"));
+    }
+
+    @Test
+    void withNextCursor_shouldPointToLastRowOfFullPage() {
+        ResponseEntity<List<Integer>> response = PageCursor.withNextCursor(List.of(3, 5), 2, PageCursor::of);
+
+        assertEquals(List.of(3, 5), response.getBody());
+        assertEquals(PageCursor.of(5).encode(), response.getHeaders().getFirst(PageCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void withNextCursor_shouldNotSetCursorForLastPage() {
+        ResponseEntity<List<Integer>> response = PageCursor.withNextCursor(List.of(3), 2, PageCursor::of);
+
+        assertFalse(response.getHeaders().containsKey(PageCursor.NEXT_CURSOR_HEADER));
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -76,10 +77,28 @@ public class ItemRequestControllerTest {
                 .andExpect(
                         MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(itemRequestDtos)));
 
+        verify(itemRequestService, Mockito.times(1)).getUsersItemRequestsETag(1);
         verify(itemRequestService, Mockito.times(1)).getUsersItemRequests(1);
         verifyNoMoreInteractions(itemRequestService);
     }
 
+    @SneakyThrows
+    @Test
+    void getUsersItemRequests_shouldReturnNotModifiedWhenETagMatches() {
+        when(itemRequestService.getUsersItemRequestsETag(1)).thenReturn("\"abc\"");
+
+        mockMvc
+                .perform(
+                        MockMvcRequestBuilders.get("/requests")
+                                .header("X-Sharer-User-Id", 1)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        verify(itemRequestService, Mockito.times(1)).getUsersItemRequestsETag(1);
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
     @SneakyThrows
     @Test
     void getRequestById_shouldReturnItemRequest() {
@@ -131,6 +150,7 @@ public class ItemRequestControllerTest {
                 .andExpect(
                         MockMvcResultMatchers.content().json(objectMapper.writeValueAsString(itemRequestDtos)));
 
+        verify(itemRequestService, Mockito.times(1)).getAllRequestsETag(1);
         verify(itemRequestService, Mockito.times(1)).getAllRequests(1, 0, 20);
         verifyNoMoreInteractions(itemRequestService);
     }
@@ -2,19 +2,23 @@ package ru.practicum.shareit.request.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.item.model.ItemEntity;
+import ru.practicum.shareit.pageable.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.model.ItemRequestEntity;
 import ru.practicum.shareit.user.model.UserEntity;
 import utils.ResourcePool;
+import utils.StatementCounter;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,7 +26,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static utils.ResourcePool.*;
 
 @Transactional
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = StatementCounter.STATISTICS_ENABLED)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemRequestServiceIntegrationTest {
     private final ItemRequestService itemRequestService;
@@ -184,4 +189,88 @@ public class ItemRequestServiceIntegrationTest {
             assertNotNull(actualItemResponseDto.getItems().get(0).getRequestId());
         }
     }
+
+    @Test
+    void getUsersItemRequests_shouldLoadItemsOfAllRequestsInOneQuery() {
+        RequestUsers users = persistRequestsWithItems(5);
+        StatementCounter statements = StatementCounter.start(em.getEntityManagerFactory());
+
+        List<ItemResponseDto> actualItemResponseDtos = itemRequestService.getUsersItemRequests(users.getRequestorId());
+
+        assertEquals(5, actualItemResponseDtos.size());
+        actualItemResponseDtos.forEach(itemResponseDto -> assertEquals(1, itemResponseDto.getItems().size()));
+        statements.assertStatements(3);
+    }
+
+    @Test
+    void getAllRequests_shouldLoadItemsOfAllRequestsInOneQuery() {
+        RequestUsers users = persistRequestsWithItems(5);
+        StatementCounter statements = StatementCounter.start(em.getEntityManagerFactory());
+
+        List<ItemResponseDto> actualItemResponseDtos = itemRequestService.getAllRequests(users.getOwnerId(), 0, 20);
+
+        assertEquals(5, actualItemResponseDtos.size());
+        actualItemResponseDtos.forEach(itemResponseDto -> assertEquals(1, itemResponseDto.getItems().size()));
+        statements.assertStatements(3);
+    }
+
+    @Test
+    void getAllRequestsAfter_shouldWalkSamePagesAsOffsetPagination() {
+        RequestUsers users = persistRequestsWithItems(5);
+
+        List<ItemResponseDto> expectedItemResponseDtos = itemRequestService.getAllRequests(users.getOwnerId(), 0, 20);
+        List<ItemResponseDto> actualItemResponseDtos = new ArrayList<>();
+        List<ItemResponseDto> page = itemRequestService.getAllRequests(users.getOwnerId(), 0, 2);
+        while (!page.isEmpty()) {
+            actualItemResponseDtos.addAll(page);
+            ItemResponseDto last = page.get(page.size() - 1);
+            page = itemRequestService.getAllRequestsAfter(users.getOwnerId(), PageCursor.of(last.getCreated(), last.getId()),
+                    2);
+        }
+
+        assertEquals(5, actualItemResponseDtos.size());
+        assertEquals(expectedItemResponseDtos, actualItemResponseDtos);
+    }
+
+    @Test
+    void getRequestsETag_shouldChangeWhenItemIsAddedToRequest() {
+        RequestUsers users = persistRequestsWithItems(2);
+        Integer requestId = itemRequestService.getUsersItemRequests(users.getRequestorId()).get(0).getId();
+        String usersETag = itemRequestService.getUsersItemRequestsETag(users.getRequestorId());
+        String allETag = itemRequestService.getAllRequestsETag(users.getOwnerId());
+
+        assertEquals(usersETag, itemRequestService.getUsersItemRequestsETag(users.getRequestorId()));
+        assertEquals(allETag, itemRequestService.getAllRequestsETag(users.getOwnerId()));
+
+        em.persist(ItemEntity.builder().name("Item").description("Item description")
+                .available(true).ownerId(users.getOwnerId()).requestId(requestId).build());
+        em.flush();
+
+        assertNotEquals(usersETag, itemRequestService.getUsersItemRequestsETag(users.getRequestorId()));
+        assertNotEquals(allETag, itemRequestService.getAllRequestsETag(users.getOwnerId()));
+    }
+
+    private RequestUsers persistRequestsWithItems(int count) {
+        UserEntity owner = UserEntity.builder().name("User 1").email("user1@yandex.ru").build();
+        UserEntity requestor = UserEntity.builder().name("User 2").email("user2@yandex.ru").build();
+        em.persist(owner);
+        em.persist(requestor);
+        for (int i = 0; i < count; i++) {
+            ItemRequestEntity itemRequestEntity = ItemRequestEntity.builder().description("Description " + i)
+                    .created(LocalDateTime.of(2023, 12, 10, 0, 0).plusDays(i)).requestorId(requestor.getId())
+                    .build();
+            em.persist(itemRequestEntity);
+            em.persist(ItemEntity.builder().name("Item " + i).description("Item " + i + " description")
+                    .available(true).ownerId(owner.getId()).requestId(itemRequestEntity.getId()).build());
+        }
+        em.flush();
+        em.clear();
+        return new RequestUsers(owner.getId(), requestor.getId());
+    }
+
+    @Value
+    private static class RequestUsers {
+        int ownerId;
+        int requestorId;
+    }
 }
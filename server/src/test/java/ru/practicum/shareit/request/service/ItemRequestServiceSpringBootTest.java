@@ -18,7 +18,7 @@ import ru.practicum.shareit.request.mapper.ItemResponseMapperImpl;
 import ru.practicum.shareit.request.model.ItemRequestEntity;
 import ru.practicum.shareit.request.storage.ItemRequestStorage;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
-import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 import utils.ResourcePool;
 
@@ -40,6 +40,8 @@ public class ItemRequestServiceSpringBootTest {
     @MockBean
     private UserStorage userStorage;
     @MockBean
+    private KnownUserIds knownUserIds;
+    @MockBean
     private ItemStorage itemStorage;
     @MockBean
     private ItemRequestStorage itemRequestStorage;
@@ -54,13 +56,13 @@ public class ItemRequestServiceSpringBootTest {
     @Test
     void createItemRequest_shouldThrowExceptionWhenUserNotFound() {
         Integer userId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.createItemRequest(userId, itemRequestDto));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoInteractions(itemRequestStorage);
     }
 
@@ -69,7 +71,7 @@ public class ItemRequestServiceSpringBootTest {
         Integer userId = 1;
         ItemRequestEntity itemRequestEntity = ItemRequestEntity.builder().id(1).description("Description")
                 .requestorId(1).created(LocalDateTime.of(2023, 12, 8, 0, 0)).build();
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemRequestStorage.save(any())).thenReturn(itemRequestEntity);
 
         ItemRequestDto actualItemRequestDto = itemRequestService.createItemRequest(1, itemRequestDto);
@@ -77,7 +79,7 @@ public class ItemRequestServiceSpringBootTest {
         ItemRequestDto expectedItemRequestDto = ItemRequestDto.builder().id(1).description("Description")
                 .requestorId(1).created(LocalDateTime.of(2023, 12, 8, 0, 0)).build();
         assertEquals(expectedItemRequestDto, actualItemRequestDto);
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemRequestStorage, Mockito.times(1)).save(any());
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemRequestStorage);
@@ -86,13 +88,13 @@ public class ItemRequestServiceSpringBootTest {
     @Test
     void getUsersItemRequests_shouldThrowExceptionWhenUserNotFound() {
         Integer userId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.getUsersItemRequests(userId));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoInteractions(itemRequestStorage);
         verifyNoInteractions(itemStorage);
     }
@@ -105,9 +107,9 @@ public class ItemRequestServiceSpringBootTest {
                 .build();
         ItemEntity itemEntity = ItemEntity.builder().id(1).name("Item 1").description("Item 1 description")
                 .available(true).requestId(1).ownerId(2).build();
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemRequestStorage.findByRequestorIdOrderByCreatedDesc(userId)).thenReturn(List.of(itemRequestEntity));
-        when(itemStorage.findByRequestId(1)).thenReturn(List.of(itemEntity));
+        when(itemStorage.findByRequestIdIn(List.of(1))).thenReturn(List.of(itemEntity));
 
         List<ItemResponseDto> actualItemResponseDtos = itemRequestService.getUsersItemRequests(userId);
 
@@ -116,9 +118,9 @@ public class ItemRequestServiceSpringBootTest {
                 });
 
         assertEquals(expectedItemResponseDtos, actualItemResponseDtos);
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemRequestStorage, Mockito.times(1)).findByRequestorIdOrderByCreatedDesc(userId);
-        verify(itemStorage, Mockito.times(1)).findByRequestId(1);
+        verify(itemStorage, Mockito.times(1)).findByRequestIdIn(List.of(1));
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemRequestStorage);
         verifyNoMoreInteractions(itemStorage);
@@ -127,13 +129,13 @@ public class ItemRequestServiceSpringBootTest {
     @Test
     void getRequestById_shouldThrowExceptionWhenUserNotFound() {
         Integer userId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.getRequestById(userId, 1));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoInteractions(itemRequestStorage);
         verifyNoInteractions(itemStorage);
     }
@@ -142,14 +144,14 @@ public class ItemRequestServiceSpringBootTest {
     void getRequestById_shouldThrowExceptionWhenRequestNotFound() {
         Integer userId = 1;
         Integer requestId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemRequestStorage.findById(requestId)).thenReturn(Optional.empty());
 
         ItemRequestNotFoundException exception = assertThrows(ItemRequestNotFoundException.class,
                 () -> itemRequestService.getRequestById(userId, requestId));
 
         assertEquals("Item request with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemRequestStorage, Mockito.times(1)).findById(requestId);
         verifyNoInteractions(itemStorage);
     }
@@ -165,7 +167,7 @@ public class ItemRequestServiceSpringBootTest {
                 .available(true).requestId(1).ownerId(2).build();
         ItemEntity itemEntity2 = ItemEntity.builder().id(2).name("Item 2").description("Item 2 description")
                 .available(true).requestId(1).ownerId(2).build();
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
         when(itemRequestStorage.findById(requestId)).thenReturn(Optional.of(itemRequestEntity));
         when(itemStorage.findByRequestId(requestId)).thenReturn(List.of(itemEntity1, itemEntity2));
 
@@ -175,7 +177,7 @@ public class ItemRequestServiceSpringBootTest {
                 .read(itemRequestService_sb_getRequestById_itemResponseDto, ItemResponseDto.class);
 
         assertEquals(expectedItemResponseDto, actualItemResponseDto);
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemRequestStorage, Mockito.times(1)).findById(requestId);
         verify(itemStorage, Mockito.times(1)).findByRequestId(requestId);
         verifyNoMoreInteractions(userStorage);
@@ -186,13 +188,13 @@ public class ItemRequestServiceSpringBootTest {
     @Test
     void getAllRequests_shouldThrowExceptionWhenUserNotFound() {
         Integer userId = 1;
-        when(userStorage.findById(userId)).thenReturn(Optional.empty());
+        when(knownUserIds.exists(userId)).thenReturn(false);
 
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.getAllRequests(userId, 0, 20));
 
         assertEquals("User with id 1 was not found", exception.getMessage());
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verifyNoInteractions(itemRequestStorage);
         verifyNoInteractions(itemStorage);
     }
@@ -200,7 +202,7 @@ public class ItemRequestServiceSpringBootTest {
     @Test
     void getAllRequests_shouldReturnRequests() {
         Integer userId = 2;
-        when(userStorage.findById(userId)).thenReturn(Optional.of(new UserEntity()));
+        when(knownUserIds.exists(userId)).thenReturn(true);
 
         ItemRequestEntity itemRequestEntity = ItemRequestEntity.builder().id(1).description("Description")
                 .requestorId(1).created(LocalDateTime.of(2023, 12, 8, 0, 0))
@@ -209,7 +211,7 @@ public class ItemRequestServiceSpringBootTest {
                 .available(true).requestId(1).ownerId(2).build();
 
         when(itemRequestStorage.findByRequestorIdNot(eq(userId), any())).thenReturn(List.of(itemRequestEntity));
-        when(itemStorage.findByRequestId(1)).thenReturn(List.of(itemEntity));
+        when(itemStorage.findByRequestIdIn(List.of(1))).thenReturn(List.of(itemEntity));
 
         List<ItemResponseDto> actualItemResponseDtos = itemRequestService.getAllRequests(userId, 0, 20);
 
@@ -218,9 +220,9 @@ public class ItemRequestServiceSpringBootTest {
                 });
 
         assertEquals(expectedItemResponseDtos, actualItemResponseDtos);
-        verify(userStorage, Mockito.times(1)).findById(userId);
+        verify(knownUserIds, Mockito.times(1)).exists(userId);
         verify(itemRequestStorage, Mockito.times(1)).findByRequestorIdNot(eq(userId), any());
-        verify(itemStorage, Mockito.times(1)).findByRequestId(1);
+        verify(itemStorage, Mockito.times(1)).findByRequestIdIn(List.of(1));
         verifyNoMoreInteractions(userStorage);
         verifyNoMoreInteractions(itemRequestStorage);
         verifyNoMoreInteractions(itemStorage);
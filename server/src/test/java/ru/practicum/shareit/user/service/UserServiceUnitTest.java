@@ -11,6 +11,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.UserEntity;
+import ru.practicum.shareit.user.storage.KnownUserIds;
 import ru.practicum.shareit.user.storage.UserStorage;
 
 import java.util.List;
@@ -28,6 +29,8 @@ public class UserServiceUnitTest {
     UserStorage userStorage;
     @Mock
     UserMapper userMapper;
+    @Mock
+    KnownUserIds knownUserIds;
     @InjectMocks
     UserServiceImpl userService;
 
@@ -69,6 +72,7 @@ public class UserServiceUnitTest {
         assertEquals(userDto1, createdUser);
         Mockito.verify(userMapper, Mockito.times(1)).toDto(any());
         Mockito.verify(userMapper, Mockito.times(1)).toEntity(any());
+        Mockito.verify(knownUserIds, Mockito.times(1)).add(1);
     }
 
     @Test
@@ -137,6 +141,7 @@ public class UserServiceUnitTest {
 
         Mockito.verify(userStorage, Mockito.times(1)).findById(1);
         Mockito.verify(userStorage, Mockito.times(1)).deleteById(1);
+        Mockito.verify(knownUserIds, Mockito.times(1)).remove(1);
 
     }
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class KnownUserIdsTest {
+    @Mock
+    UserStorage userStorage;
+    @InjectMocks
+    KnownUserIds knownUserIds;
+
+    @Test
+    void exists_shouldAnswerLoadedIdsWithoutDatabase() {
+        when(userStorage.findAllIds()).thenReturn(List.of(1, 5));
+        knownUserIds.rebuild();
+
+        assertTrue(knownUserIds.exists(1));
+        assertTrue(knownUserIds.exists(5));
+
+        Mockito.verify(userStorage, Mockito.times(1)).findAllIds();
+        verifyNoMoreInteractions(userStorage);
+    }
+
+    @Test
+    void exists_shouldCheckDatabaseWhenIdIsUnknown() {
+        when(userStorage.findAllIds()).thenReturn(List.of(1));
+        when(userStorage.existsById(2)).thenReturn(true);
+        when(userStorage.existsById(3)).thenReturn(false);
+        knownUserIds.rebuild();
+
+        assertTrue(knownUserIds.exists(2));
+        assertFalse(knownUserIds.exists(3));
+        assertFalse(knownUserIds.exists(-1));
+
+        Mockito.verify(userStorage, Mockito.times(1)).existsById(2);
+        Mockito.verify(userStorage, Mockito.times(1)).existsById(3);
+        verifyNoMoreInteractions(userStorage);
+    }
+
+    @Test
+    void addAndRemove_shouldUpdateKnownIds() {
+        when(userStorage.existsById(7)).thenReturn(false);
+
+        knownUserIds.add(7);
+        assertTrue(knownUserIds.exists(7));
+
+        knownUserIds.remove(7);
+        assertFalse(knownUserIds.exists(7));
+
+        Mockito.verify(userStorage, Mockito.times(1)).existsById(7);
+    }
+}
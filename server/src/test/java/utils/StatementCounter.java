@@ -0,0 +1,41 @@
+package utils;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Считает SQL-запросы Hibernate с момента вызова start(). Тесту нужно свойство STATISTICS_ENABLED.
+ */
+public class StatementCounter {
+    public static final String STATISTICS_ENABLED = "spring.jpa.properties.hibernate.generate_statistics=true";
+
+    private final Statistics statistics;
+
+    private StatementCounter(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public static StatementCounter start(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return new StatementCounter(statistics);
+    }
+
+    public void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Unexpected number of SQL statements");
+    }
+
+    public void assertStatementsAtMost(long max) {
+        long actual = statistics.getPrepareStatementCount();
+        assertTrue(actual <= max, () -> String.format("Expected at most %d SQL statements, got %d", max, actual));
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+}